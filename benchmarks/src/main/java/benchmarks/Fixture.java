@@ -0,0 +1,26 @@
+package benchmarks;
+
+import chess.ChessGame;
+
+/**
+ * Positions the benchmarks run against, covering each phase of a game.
+ */
+public enum Fixture {
+    OPENING("r1bqkbnr/1ppp1ppp/p1n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R w"),
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w"),
+    ENDGAME("6k1/5p2/1q4p1/3N3p/1P1b3P/6P1/5PK1/4R3 w"),
+    CHECKMATE("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w");
+
+    private final String fen;
+
+    Fixture(String fen) {
+        this.fen = fen;
+    }
+
+    /**
+     * @return a new game in this position
+     */
+    public ChessGame game() {
+        return ChessGame.fromFen(fen);
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of {@link ChessPiece#pieceMoves} for every piece of one type on a
+ * fixture board, so each move calculator is measured on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveCalculatorBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public Fixture fixture;
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard board;
+    private ChessPiece[] pieces;
+    private ChessPosition[] positions;
+
+    @Setup
+    public void setUp() {
+        board = fixture.game().getBoard();
+        List<ChessPosition> found = new ArrayList<>();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (long bits = board.getPieces(color, type); bits != 0; bits &= bits - 1) {
+                int square = Bitboards.first(bits);
+                found.add(new ChessPosition(Bitboards.row(square), Bitboards.column(square)));
+            }
+        }
+        positions = found.toArray(new ChessPosition[0]);
+        pieces = new ChessPiece[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            pieces[i] = board.getPiece(positions[i]);
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (int i = 0; i < positions.length; i++) {
+            blackhole.consume(pieces[i].pieceMoves(board, positions[i]));
+        }
+    }
+}
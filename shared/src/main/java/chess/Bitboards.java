@@ -0,0 +1,125 @@
+package chess;
+
+/**
+ * Constants and helpers for working with 64-bit board masks.
+ * <p>
+ * Squares are numbered 0-63 starting at row 1, column 1 (a1) and moving
+ * along the row, so bit {@code (row-1)*8 + (col-1)} of a mask represents
+ * the position {@code (row, col)}.
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    /** Squares a knight on each square attacks */
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    /** Squares a king on each square attacks */
+    public static final long[] KING_ATTACKS = new long[64];
+    /** Squares a pawn of each team (by ordinal) on each square attacks */
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] BETWEEN = new long[64 * 64];
+
+    static {
+        int[][] jumps = {{2,1}, {2,-1}, {-2,1}, {-2,-1}, {1,2}, {1,-2}, {-1,2}, {-1,-2}};
+        int[][] steps = {{1,1}, {1,-1}, {1,0}, {0,1}, {0,-1}, {-1,0}, {-1,1}, {-1,-1}};
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = offsets(square, jumps);
+            KING_ATTACKS[square] = offsets(square, steps);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = offsets(square, new int[][] {{1,-1}, {1,1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = offsets(square, new int[][] {{-1,-1}, {-1,1}});
+
+            for (int[] step : steps) {
+                long ray = 0L;
+                int row = row(square) + step[0];
+                int col = column(square) + step[1];
+                while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                    BETWEEN[square * 64 + square(row, col)] = ray;
+                    ray |= mask(square(row, col));
+                    row += step[0];
+                    col += step[1];
+                }
+            }
+        }
+    }
+
+    private Bitboards() { }
+
+// Public Methods
+    /**
+     * @return the square index of the given row and column (both 1-8)
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the square index of the given position
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the row (1-8) of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the column (1-8) of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return a mask with only the given square set
+     */
+    public static long mask(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return the lowest square set in a non-empty mask
+     */
+    public static int first(long mask) {
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * @return mask of the squares strictly between two squares on the same row,
+     * column or diagonal, or 0 if they are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from * 64 + to];
+    }
+
+//Private methods
+    /**
+     * Builds the mask of squares reachable from a square by single steps.
+     *
+     * @param square  the square to step from
+     * @param offsets row/column offsets to apply
+     * @return mask of every on-board destination
+     */
+    private static long offsets(int square, int[][] offsets) {
+        long mask = 0L;
+        for (int[] offset : offsets) {
+            int row = row(square) + offset[0];
+            int col = column(square) + offset[1];
+            if (row < 1 || row > 8 || col < 1 || col > 8) { continue; }
+            mask |= mask(square(row, col));
+        }
+        return mask;
+    }
+}
@@ -1,16 +1,71 @@
 package chess;
 import java.util.Arrays;
 
+import chess.movecalculators.MagicBitboards;
+import chess.movecalculators.Move;
+
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Pieces are kept both in a 64-square array and in one bitboard per team and
+ * piece type, so whole-board queries can be answered with a few long operations.
+ * <p>
+ * The board also keeps the state that the pieces alone don't show, packed
+ * into one int so making and taking back a move saves and restores it in one
+ * step: castling rights (bits 0-3), the en passant square (bits 4-9, 0 for
+ * none) and the number of plies since the last capture or pawn move (bits
+ * 10 and up). The key of every position reached is kept with the undo state,
+ * so repetitions can be found without replaying the game.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
 public class ChessBoard implements Cloneable {
 
-    ChessPiece[][] squares = new ChessPiece[8][8];
-    
+    /** Castling right bits, see {@link #getCastlingRights()} */
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    private static final int CASTLING_BITS = 15;
+    private static final int EN_PASSANT_SHIFT = 4;
+    private static final int CLOCK_SHIFT = 10;
+    private static final int MAX_CLOCK = (1 << (32 - CLOCK_SHIFT - 1)) - 1;
+
+    /** Rights kept when a piece moves from or to each square */
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING);
+        CASTLING_MASKS[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASKS[56] &= ~BLACK_QUEENSIDE;
+    }
+
+    ChessPiece[] squares = new ChessPiece[64];
+    long[] pieces = new long[12];
+    long[] teams = new long[2];
+    long key;
+    long pawnKey;
+    // piece-square sums and game phase, see PieceSquareTables
+    int midgame;
+    int endgame;
+    int phase;
+    int state = ALL_CASTLING;
+
+    // undo state for each move made and not yet unmade
+    private transient int[] undoMoves = new int[32];
+    private transient ChessPiece[] undoMoved = new ChessPiece[32];
+    private transient ChessPiece[] undoCaptured = new ChessPiece[32];
+    private transient int[] undoStates = new int[32];
+    private transient long[] undoKeys = new long[32];
+    private transient int ply;
+
     public ChessBoard() { }
 
 // Public Methods
@@ -21,7 +76,13 @@ public class ChessBoard implements Cloneable {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = Bitboards.square(position);
+        if (squares[square] != null) {
+            removePiece(square);
+        }
+        if (piece != null) {
+            putPiece(square, piece);
+        }
     }
 
     /**
@@ -32,7 +93,390 @@ public class ChessBoard implements Cloneable {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow()-1][position.getColumn()-1];
+        return squares[Bitboards.square(position)];
+    }
+
+    /**
+     * Gets a chess piece on the chessboard by square index
+     *
+     * @param square the square index, see {@link Bitboards#square(int, int)}
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @param teamColor the team to get pieces for
+     * @param type      the type of piece
+     * @return mask of the squares holding pieces of that team and type
+     */
+    public long getPieces(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return pieces[index(teamColor, type)];
+    }
+
+    /**
+     * @param teamColor the team to get pieces for
+     * @return mask of the squares holding any piece of that team
+     */
+    public long getTeamPieces(ChessGame.TeamColor teamColor) {
+        return teams[teamColor.ordinal()];
+    }
+
+    /**
+     * @return mask of every occupied square
+     */
+    public long getOccupied() {
+        return teams[0] | teams[1];
+    }
+
+    /**
+     * Gets the Zobrist key of the piece placement, kept up to date as pieces
+     * are added, moved and removed, combined with the castling rights and
+     * en passant square. Side to move is not included, see
+     * {@link ChessGame#getZobristKey()}.
+     *
+     * @return the 64-bit key
+     */
+    public long getZobristKey() {
+        return key ^ Zobrist.castling(getCastlingRights()) ^ Zobrist.enPassant(getEnPassantSquare());
+    }
+
+    /**
+     * Gets the castling rights that still count. A right is lost once its king
+     * or rook has moved or the rook was captured, and only counts while both
+     * pieces stand on their starting squares; a board set up piece by piece
+     * starts with every right.
+     *
+     * @return a combination of {@link #WHITE_KINGSIDE}, {@link #WHITE_QUEENSIDE},
+     * {@link #BLACK_KINGSIDE} and {@link #BLACK_QUEENSIDE}
+     */
+    public int getCastlingRights() {
+        int rights = state & CASTLING_BITS;
+        if (rights == 0) {
+            return 0;
+        }
+        long whiteRooks = pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)];
+        long blackRooks = pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK)];
+        if ((pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)] & Bitboards.mask(4)) == 0) {
+            rights &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        }
+        if ((whiteRooks & Bitboards.mask(7)) == 0) {
+            rights &= ~WHITE_KINGSIDE;
+        }
+        if ((whiteRooks & Bitboards.mask(0)) == 0) {
+            rights &= ~WHITE_QUEENSIDE;
+        }
+        if ((pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING)] & Bitboards.mask(60)) == 0) {
+            rights &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        }
+        if ((blackRooks & Bitboards.mask(63)) == 0) {
+            rights &= ~BLACK_KINGSIDE;
+        }
+        if ((blackRooks & Bitboards.mask(56)) == 0) {
+            rights &= ~BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    /**
+     * Sets which castling rights have not been lost, as when loading a position
+     *
+     * @param rights a combination of the castling right bits
+     */
+    public void setCastlingRights(int rights) {
+        state = (state & ~CASTLING_BITS) | (rights & CASTLING_BITS);
+    }
+
+    /**
+     * Gets the square a pawn skipped over with a double move on the last move,
+     * if an enemy pawn is in place to capture it there en passant.
+     *
+     * @return the square index, or -1 if there is none
+     */
+    public int getEnPassantSquare() {
+        int square = (state >>> EN_PASSANT_SHIFT) & 63;
+        return (square == 0) ? -1 : square;
+    }
+
+    /**
+     * Sets the en passant square, as when loading a position
+     *
+     * @param square the square index on row 3 or 6, or -1 for none
+     */
+    public void setEnPassantSquare(int square) {
+        state = (state & ~(63 << EN_PASSANT_SHIFT)) | (Math.max(square, 0) << EN_PASSANT_SHIFT);
+    }
+
+    /**
+     * Gets the number of moves by either team since the last capture or pawn
+     * move, for the fifty-move rule.
+     *
+     * @return the number of plies
+     */
+    public int getHalfmoveClock() {
+        return state >>> CLOCK_SHIFT;
+    }
+
+    /**
+     * Sets the halfmove clock, as when loading a position
+     *
+     * @param plies the number of plies since the last capture or pawn move
+     */
+    public void setHalfmoveClock(int plies) {
+        state = (state & ((1 << CLOCK_SHIFT) - 1)) | (Math.min(plies, MAX_CLOCK) << CLOCK_SHIFT);
+    }
+
+    /**
+     * Counts how many times the current position has been on the board before,
+     * with the same team to move, among the moves made on this board. Only
+     * positions since the last capture or pawn move can repeat, so the search
+     * stops there.
+     *
+     * @return the number of earlier occurrences
+     */
+    public int getRepetitions() {
+        long current = getZobristKey();
+        int oldest = Math.max(0, ply - getHalfmoveClock());
+        int count = 0;
+        for (int i = ply - 4; i >= oldest; i -= 2) {
+            if (undoKeys[i] == current) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the Zobrist key of the pawns alone, for caching evaluation terms
+     * that depend only on pawn structure.
+     *
+     * @return the 64-bit key, 0 if there are no pawns
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Gets the sum of the middlegame piece-square scores of every piece, kept
+     * up to date like the Zobrist key.
+     *
+     * @return the score in centipawns from white's point of view
+     */
+    public int getMidgameScore() {
+        return midgame;
+    }
+
+    /**
+     * Gets the sum of the endgame piece-square scores of every piece.
+     *
+     * @return the score in centipawns from white's point of view
+     */
+    public int getEndgameScore() {
+        return endgame;
+    }
+
+    /**
+     * Gets how much material is left to weigh the middlegame score against
+     * the endgame score.
+     *
+     * @return {@link PieceSquareTables#MAX_PHASE} with all pieces on the board,
+     * falling to 0 with only kings and pawns left
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets the square of a team's king. The king's bitboard doubles as a cache
+     * of its square, so this is a single bit scan.
+     *
+     * @param teamColor the team whose king to find
+     * @return the king's square index, or -1 if the team has no king
+     */
+    public int getKingSquare(ChessGame.TeamColor teamColor) {
+        long king = pieces[index(teamColor, ChessPiece.PieceType.KING)];
+        return (king == 0) ? -1 : Bitboards.first(king);
+    }
+
+    /**
+     * Determines if any piece of a team attacks a square. Works outward from the
+     * square, treating it as each kind of piece in turn, and stops at the first
+     * attacker found.
+     *
+     * @param square   the square index to check
+     * @param attacker the team that may be attacking
+     * @return True if a piece of the attacking team attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+        return isSquareAttacked(square, attacker, getOccupied());
+    }
+
+    /**
+     * Determines if any piece of a team attacks a square, with sliders blocked
+     * by a given set of squares rather than the board's pieces. Used to ask
+     * whether a square would be attacked once a piece has moved.
+     *
+     * @param square   the square index to check
+     * @param attacker the team that may be attacking
+     * @param occupied mask of the squares that block sliding pieces
+     * @return True if a piece of the attacking team attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor attacker, long occupied) {
+        if ((Bitboards.PAWN_ATTACKS[attacker.opp().ordinal()][square]
+                & getPieces(attacker, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+        if ((Bitboards.KNIGHT_ATTACKS[square] & getPieces(attacker, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((Bitboards.KING_ATTACKS[square] & getPieces(attacker, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = getPieces(attacker, ChessPiece.PieceType.QUEEN);
+        if ((MagicBitboards.rookAttacks(square, occupied)
+                & (getPieces(attacker, ChessPiece.PieceType.ROOK) | queens)) != 0) {
+            return true;
+        }
+        return (MagicBitboards.bishopAttacks(square, occupied)
+                & (getPieces(attacker, ChessPiece.PieceType.BISHOP) | queens)) != 0;
+    }
+
+    /**
+     * Finds every piece of a team that attacks a square
+     *
+     * @param square   the square index to check
+     * @param attacker the team whose pieces to find
+     * @return mask of the attacking pieces
+     */
+    public long getAttackers(int square, ChessGame.TeamColor attacker) {
+        long occupied = getOccupied();
+        long queens = getPieces(attacker, ChessPiece.PieceType.QUEEN);
+        return (Bitboards.PAWN_ATTACKS[attacker.opp().ordinal()][square] & getPieces(attacker, ChessPiece.PieceType.PAWN))
+                | (Bitboards.KNIGHT_ATTACKS[square] & getPieces(attacker, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.KING_ATTACKS[square] & getPieces(attacker, ChessPiece.PieceType.KING))
+                | (MagicBitboards.rookAttacks(square, occupied) & (getPieces(attacker, ChessPiece.PieceType.ROOK) | queens))
+                | (MagicBitboards.bishopAttacks(square, occupied) & (getPieces(attacker, ChessPiece.PieceType.BISHOP) | queens));
+    }
+
+    /**
+     * Moves a piece in place, remembering what is needed to take the move back.
+     * The move is not checked for legality. A king moving two squares along
+     * its row castles, and a pawn moving diagonally onto an empty square
+     * captures en passant.
+     *
+     * @param move the move to make
+     */
+    public void makeMove(ChessMove move) {
+        int encoded = Move.of(move);
+        int from = Move.from(encoded);
+        int to = Move.to(encoded);
+        ChessPiece piece = squares[from];
+        if (piece != null && Move.kind(encoded) == Move.NORMAL) {
+            if (piece.getPieceType() == ChessPiece.PieceType.KING
+                    && Math.abs(to - from) == 2 && (from >>> 3) == (to >>> 3)) {
+                encoded = Move.castling(from, to);
+            } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN
+                    && ((from ^ to) & 7) != 0 && squares[to] == null) {
+                encoded = Move.enPassant(from, to);
+            }
+        }
+        makeMove(encoded);
+    }
+
+    /**
+     * Makes an encoded move in place, see {@link #makeMove(ChessMove)}
+     *
+     * @param move the move to make, encoded by {@link Move}
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        int capturedSquare = (kind == Move.EN_PASSANT) ? enPassantVictim(from, to) : to;
+        ChessPiece moved = squares[from];
+        ChessPiece captured = squares[capturedSquare];
+        pushUndo(move, moved, captured);
+
+        if (captured != null) {
+            removePiece(capturedSquare);
+        }
+        removePiece(from);
+        if (kind == Move.PROMOTION) {
+            putPiece(to, ChessPiece.of(moved.getTeamColor(), Move.promotion(move)));
+        } else {
+            putPiece(to, moved);
+        }
+        if (kind == Move.CASTLING) {
+            int rookFrom = castlingRookSquare(from, to);
+            ChessPiece rook = squares[rookFrom];
+            removePiece(rookFrom);
+            putPiece((from + to) / 2, rook);
+        }
+
+        int rights = state & CASTLING_BITS & CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        int enPassant = 0;
+        int clock = getHalfmoveClock() + 1;
+        if (moved.getPieceType() == ChessPiece.PieceType.PAWN) {
+            clock = 0;
+            if (Math.abs(to - from) == 16) {
+                int skipped = (from + to) / 2;
+                ChessGame.TeamColor team = moved.getTeamColor();
+                if ((Bitboards.PAWN_ATTACKS[team.ordinal()][skipped]
+                        & getPieces(team.opp(), ChessPiece.PieceType.PAWN)) != 0) {
+                    enPassant = skipped;
+                }
+            }
+        } else if (captured != null) {
+            clock = 0;
+        }
+        state = rights | (enPassant << EN_PASSANT_SHIFT) | (Math.min(clock, MAX_CLOCK) << CLOCK_SHIFT);
+    }
+
+    /**
+     * Passes the turn without moving, for null-move pruning in a search. Any
+     * en passant capture is given up, and the halfmove clock restarts so
+     * repetitions are not looked for across the null move. Taken back with
+     * {@link #unmakeMove()}.
+     */
+    public void makeNullMove() {
+        pushUndo(Move.NONE, null, null);
+        state &= CASTLING_BITS;
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(ChessMove)} or
+     * {@link #makeMove(int)}
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("no move to unmake");
+        }
+        ply--;
+        int move = undoMoves[ply];
+        state = undoStates[ply];
+        if (move == Move.NONE) {
+            return;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+
+        if (Move.kind(move) == Move.CASTLING) {
+            int rookTo = (from + to) / 2;
+            ChessPiece rook = squares[rookTo];
+            removePiece(rookTo);
+            putPiece(castlingRookSquare(from, to), rook);
+        }
+        removePiece(to);
+        putPiece(from, undoMoved[ply]);
+        if (undoCaptured[ply] != null) {
+            int capturedSquare = (Move.kind(move) == Move.EN_PASSANT) ? enPassantVictim(from, to) : to;
+            putPiece(capturedSquare, undoCaptured[ply]);
+        }
+        undoMoved[ply] = null;
+        undoCaptured[ply] = null;
     }
 
     /**
@@ -40,47 +484,156 @@ public class ChessBoard implements Cloneable {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        squares = new ChessPiece[8][8];
+        squares = new ChessPiece[64];
+        pieces = new long[12];
+        teams = new long[2];
+        key = 0L;
+        pawnKey = 0L;
+        midgame = 0;
+        endgame = 0;
+        phase = 0;
+        state = ALL_CASTLING;
+        ply = 0;
 
         //add black pieces
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(7, i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         //add white pieces
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
     }
     
+    /**
+     * Gets the bitboard index used for a team and piece type
+     *
+     * @param teamColor the team of the piece
+     * @param type      the type of the piece
+     * @return an index from 0 to 11
+     */
+    public static int index(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return teamColor.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * Forgets the moves made so far, as when a position is loaded over this
+     * board: they can no longer be unmade or count toward a repetition.
+     */
+    void clearHistory() {
+        ply = 0;
+    }
+
+//Private methods
+    /**
+     * Saves what is needed to take back a move about to be made, along with
+     * the key of the position it is made from.
+     */
+    private void pushUndo(int move, ChessPiece moved, ChessPiece captured) {
+        if (ply == undoMoves.length) {
+            growUndoStack();
+        }
+        undoMoves[ply] = move;
+        undoMoved[ply] = moved;
+        undoCaptured[ply] = captured;
+        undoStates[ply] = state;
+        undoKeys[ply] = getZobristKey();
+        ply++;
+    }
+
+    /**
+     * Doubles the room for undo state.
+     */
+    private void growUndoStack() {
+        int length = undoMoves.length * 2;
+        undoMoves = Arrays.copyOf(undoMoves, length);
+        undoMoved = Arrays.copyOf(undoMoved, length);
+        undoCaptured = Arrays.copyOf(undoCaptured, length);
+        undoStates = Arrays.copyOf(undoStates, length);
+        undoKeys = Arrays.copyOf(undoKeys, length);
+    }
+
+    /**
+     * @return the square of the pawn captured by an en passant move: beside
+     * the capturing pawn, on the column it moves to
+     */
+    private static int enPassantVictim(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    /**
+     * @return the square of the rook a castling king moves towards
+     */
+    private static int castlingRookSquare(int from, int to) {
+        return (to > from) ? from + 3 : from - 4;
+    }
+
+    /**
+     * Places a piece on an empty square.
+     *
+     * @param square the square to place the piece on
+     * @param piece  the piece to place
+     */
+    private void putPiece(int square, ChessPiece piece) {
+        long mask = Bitboards.mask(square);
+        squares[square] = piece;
+        pieces[piece.getIndex()] |= mask;
+        teams[piece.getTeamColor().ordinal()] |= mask;
+        key ^= Zobrist.piece(piece.getIndex(), square);
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            pawnKey ^= Zobrist.piece(piece.getIndex(), square);
+        }
+        midgame += PieceSquareTables.midgame(piece.getIndex(), square);
+        endgame += PieceSquareTables.endgame(piece.getIndex(), square);
+        phase += PieceSquareTables.phase(piece.getIndex());
+    }
+
+    /**
+     * Removes the piece on an occupied square.
+     *
+     * @param square the square to clear
+     */
+    private void removePiece(int square) {
+        ChessPiece piece = squares[square];
+        long mask = Bitboards.mask(square);
+        squares[square] = null;
+        pieces[piece.getIndex()] &= ~mask;
+        teams[piece.getTeamColor().ordinal()] &= ~mask;
+        key ^= Zobrist.piece(piece.getIndex(), square);
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            pawnKey ^= Zobrist.piece(piece.getIndex(), square);
+        }
+        midgame -= PieceSquareTables.midgame(piece.getIndex(), square);
+        endgame -= PieceSquareTables.endgame(piece.getIndex(), square);
+        phase -= PieceSquareTables.phase(piece.getIndex());
+    }
+
 // Override Methods
     @Override
     public String toString() {
-        return "ChessBoard [squares=" + Arrays.deepToString(squares) + "]";
+        return "ChessBoard [squares=" + Arrays.toString(squares) + "]";
     }
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + Arrays.deepHashCode(squares);
-        return result;
+        return Long.hashCode(key);
     }
 
     @Override
@@ -92,22 +645,27 @@ public class ChessBoard implements Cloneable {
         if (getClass() != obj.getClass())
             return false;
         ChessBoard other = (ChessBoard) obj;
-        if (!Arrays.deepEquals(squares, other.squares))
+        if (!Arrays.equals(pieces, other.pieces))
             return false;
         return true;
     }
 
     @Override
-    protected Object clone() throws CloneNotSupportedException {
-        ChessBoard clone= (ChessBoard) super.clone();
-        clone.squares = new ChessPiece[8][8];
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if (squares[i][j] != null) {
-                    clone.squares[i][j] = (ChessPiece) squares[i][j].clone();
-                }
-            }
+    public ChessBoard clone() {
+        ChessBoard clone;
+        try {
+            clone = (ChessBoard) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("can't clone: " + this, e);
         }
+        clone.squares = squares.clone();
+        clone.pieces = pieces.clone();
+        clone.teams = teams.clone();
+        clone.undoMoves = undoMoves.clone();
+        clone.undoMoved = undoMoved.clone();
+        clone.undoCaptured = undoCaptured.clone();
+        clone.undoStates = undoStates.clone();
+        clone.undoKeys = undoKeys.clone();
         return clone;
     }
 }
\ No newline at end of file
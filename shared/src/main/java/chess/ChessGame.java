@@ -1,11 +1,18 @@
 package chess;
 
-import java.util.ArrayList;
 import java.util.Collection;
 
+import chess.movecalculators.LegalMoveGenerator;
+import chess.movecalculators.MoveList;
+
 /**
  * For a class that can manage a chess game, making moves on a board
  * <p>
+ * Several threads may read a game at once, asking for its moves or whether
+ * it is over; the move generation scratch those reads need is kept per
+ * thread. Making moves or otherwise changing a game while other threads read
+ * it is not safe.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
@@ -23,8 +30,14 @@ public class ChessGame {
         }
     }
 
+    /** FEN letters of the pieces, by bitboard index */
+    private static final String PIECE_LETTERS = "KQBNRPkqbnrp";
+    private static final String CASTLING_LETTERS = "KQkq";
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
     private ChessBoard board;
     private ChessGame.TeamColor currentTeamColor;
+    private int fullmoveNumber = 1;
 
     public ChessGame() {
         this.board = new ChessBoard();
@@ -32,6 +45,11 @@ public class ChessGame {
         board.resetBoard();
     }
 
+    private ChessGame(ChessBoard board, TeamColor currentTeamColor) {
+        this.board = board;
+        this.currentTeamColor = currentTeamColor;
+    }
+
 // Public Methods
     /**
      * @return Which team's turn it is
@@ -67,6 +85,190 @@ public class ChessGame {
         return this.board;
     }
 
+    /**
+     * Gets the Zobrist key of the position: the board's key with the side to
+     * move mixed in. Equal positions have equal keys, so it can key
+     * repetition checks, transposition tables and caches.
+     *
+     * @return the 64-bit key
+     */
+    public long getZobristKey() {
+        long key = board.getZobristKey();
+        return (currentTeamColor == TeamColor.BLACK) ? key ^ Zobrist.SIDE_KEY : key;
+    }
+
+    /**
+     * Gets the number of the current move, which starts at 1 and goes up
+     * after each of black's moves made through {@link #makeMove(ChessMove)}.
+     *
+     * @return the fullmove number
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Sets the fullmove number, as when loading a position
+     *
+     * @param number the number of the current move, at least 1
+     */
+    public void setFullmoveNumber(int number) {
+        this.fullmoveNumber = Math.max(number, 1);
+    }
+
+    /**
+     * Creates a game from Forsyth-Edwards Notation. The text is read one
+     * character at a time straight into a new board, without splitting it or
+     * creating intermediate objects. Fields after the piece placement may be
+     * left off: the side to move defaults to white, castling rights and the en
+     * passant square to none, and the move counters to 0 and 1.
+     *
+     * @param fen the position, e.g. {@code "8/8/8/8/8/8/8/K1k5 w - - 0 1"}
+     * @return a game in that position
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        ChessBoard board = new ChessBoard();
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+        int row = 8;
+        int col = 1;
+        for (; i < length && !Character.isWhitespace(fen.charAt(i)); i++) {
+            char c = fen.charAt(i);
+            int index = PIECE_LETTERS.indexOf(c);
+            if (c == '/' && col == 9 && row > 1) {
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8' && col + (c - '1') <= 8) {
+                col += c - '0';
+            } else if (index >= 0 && col <= 8) {
+                board.addPiece(ChessPosition.of(row, col), ChessPiece.of(index));
+                col++;
+            } else {
+                throw badFen(fen);
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw badFen(fen);
+        }
+
+        TeamColor turn = TeamColor.WHITE;
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            char c = fen.charAt(i++);
+            if (c == 'b') {
+                turn = TeamColor.BLACK;
+            } else if (c != 'w') {
+                throw badFen(fen);
+            }
+        }
+
+        int rights = 0;
+        i = skipSpaces(fen, i);
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && !Character.isWhitespace(fen.charAt(i)); i++) {
+                int right = CASTLING_LETTERS.indexOf(fen.charAt(i));
+                if (right < 0) {
+                    throw badFen(fen);
+                }
+                rights |= 1 << right;
+            }
+        }
+        board.setCastlingRights(rights);
+
+        i = skipSpaces(fen, i);
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else if (i < length) {
+            if (i + 1 >= length) {
+                throw badFen(fen);
+            }
+            int file = fen.charAt(i) - 'a';
+            int rank = fen.charAt(i + 1) - '1';
+            if (file < 0 || file > 7 || (rank != 2 && rank != 5)) {
+                throw badFen(fen);
+            }
+            board.setEnPassantSquare(rank * 8 + file);
+            i += 2;
+        }
+
+        i = skipSpaces(fen, i);
+        int halfmoves = 0;
+        for (; i < length && !Character.isWhitespace(fen.charAt(i)); i++) {
+            halfmoves = halfmoves * 10 + digit(fen, i);
+        }
+        board.setHalfmoveClock(halfmoves);
+
+        ChessGame game = new ChessGame(board, turn);
+        i = skipSpaces(fen, i);
+        if (i < length) {
+            int fullmoves = 0;
+            for (; i < length && !Character.isWhitespace(fen.charAt(i)); i++) {
+                fullmoves = fullmoves * 10 + digit(fen, i);
+            }
+            game.setFullmoveNumber(fullmoves);
+        }
+        if (skipSpaces(fen, i) != length) {
+            throw badFen(fen);
+        }
+        return game;
+    }
+
+    /**
+     * Writes the game in Forsyth-Edwards Notation, e.g.
+     * {@code "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1"}.
+     * The en passant square is written as the board holds it; after a move the
+     * board only holds one when a pawn can capture there.
+     *
+     * @return the position as a single line of text
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int square = row * 8; square < row * 8 + 8; square++) {
+                ChessPiece piece = board.getPiece(square);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(PIECE_LETTERS.charAt(piece.getIndex()));
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(currentTeamColor == TeamColor.WHITE ? " w " : " b ");
+        int rights = board.getCastlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        }
+        for (int right = 0; right < 4; right++) {
+            if ((rights & (1 << right)) != 0) {
+                fen.append(CASTLING_LETTERS.charAt(right));
+            }
+        }
+
+        int enPassant = board.getEnPassantSquare();
+        fen.append(' ');
+        if (enPassant < 0) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + (enPassant & 7))).append((char) ('1' + (enPassant >>> 3)));
+        }
+        return fen.append(' ').append(board.getHalfmoveClock()).append(' ').append(fullmoveNumber).toString();
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -75,32 +277,28 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        try {
-            if (board.getPiece(startPosition) == null) {
-                return null;
-            } else {
-                Collection<ChessMove> invalidMoves = new ArrayList<>();
-                ChessPiece piece = board.getPiece(startPosition);
-                Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
-                TeamColor teamColor = piece.getTeamColor();
-                
-                for (ChessMove move: moves) {
-                    ChessBoard temp = board;
-                    ChessBoard clone = (ChessBoard) board.clone();
-                    board = clone;
-                    board.addPiece(move.getStartPosition(), null);
-                    board.addPiece(move.getEndPosition(), piece);
-                    if (isInCheck(teamColor)) {
-                        invalidMoves.add(move);
-                    }
-                    board = temp;
-                }
-                moves.removeAll(invalidMoves);
-                return moves;
-            }
-        } catch(CloneNotSupportedException e) {
-            throw new AssertionError("can't clone: " + this.board, e);
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) {
+            return null;
         }
+        Scratch scratch = SCRATCH.get();
+        scratch.moves.clear();
+        analyze(scratch, piece.getTeamColor()).generate(Bitboards.square(startPosition), scratch.moves);
+        return scratch.moves.toChessMoves();
+    }
+
+    /**
+     * Gets every legal move for a team in one pass over its pieces, using the
+     * team's checkers and pinned pieces to reject moves without making them
+     *
+     * @param teamColor the team to get moves for
+     * @return every move the team can legally make
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        Scratch scratch = SCRATCH.get();
+        scratch.moves.clear();
+        analyze(scratch, teamColor).generate(scratch.moves);
+        return scratch.moves.toChessMoves();
     }
 
     /**
@@ -121,19 +319,13 @@ public class ChessGame {
             throw new InvalidMoveException("move is not valid.");
         }
 
-        if (move.getPromotionPiece() != null) {
-            ChessPiece promotedChessPiece = new ChessPiece(currentTeamColor,move.getPromotionPiece());
-            board.addPiece(move.getEndPosition(), promotedChessPiece);
-        } else {
-            board.addPiece(move.getEndPosition(), piece);
-        }
-
-        board.addPiece(move.getStartPosition(), null);
+        board.makeMove(move);
 
         if (piece.getTeamColor().equals(TeamColor.WHITE)) {
             setTeamTurn(TeamColor.BLACK);
         } else {
             setTeamTurn(TeamColor.WHITE);
+            fullmoveNumber++;
         }
     }
 
@@ -144,13 +336,8 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        Collection<ChessMove> oppMoves = allMoves(teamColor.opp());
-        for (ChessMove move: oppMoves) {
-            if (move.getEndPosition().equals(kingPosition(teamColor))) {
-                return true;
-            }
-        }
-        return false;
+        int kingSquare = board.getKingSquare(teamColor);
+        return kingSquare >= 0 && board.isSquareAttacked(kingSquare, teamColor.opp());
     }
 
     /**
@@ -160,10 +347,8 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) {
-            return false;
-        }
-        return !movesExistToStopCheck(teamColor);
+        Scratch scratch = SCRATCH.get();
+        return analyze(scratch, teamColor).isInCheck() && !hasLegalMove(scratch);
     }
 
     /**
@@ -174,106 +359,97 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
-        }
-        for (ChessMove move: allMoves(teamColor)) {
-            if (!validMoves(move.getStartPosition()).isEmpty()) {
-                return false;
-            }
-        }
-        return true;
+        Scratch scratch = SCRATCH.get();
+        return !analyze(scratch, teamColor).isInCheck() && !hasLegalMove(scratch);
     }
 
-//Private methods
     /**
-     * Determines if there are moves that can stop checkmate.
+     * Determines if fifty moves by each team have passed without a capture or
+     * pawn move, so either player may claim a draw.
      *
-     * @param teamColor which team to check for checkmate
-     * @return True if there is a move that can stop checkmate
+     * @return True if the fifty-move rule applies
      */
-    private boolean movesExistToStopCheck(TeamColor teamColor) {
-        Collection<ChessMove> moves = allMoves(teamColor);
-        
-        for (ChessMove move: moves) {
-            try {
-                if (moveStopsCheck(move, teamColor)) {
-                    return true;
-                }
-            } catch (InvalidMoveException e) {
-                continue;
-            }
-        }
-        return false;
+    public boolean isFiftyMoveDraw() {
+        return board.getHalfmoveClock() >= 100;
     }
 
     /**
-     * Determines if there are moves that can stop checkmate.
+     * Determines if the current position has occurred at least three times,
+     * counting only positions reached by moves made on this board.
      *
-     * @param teamColor which team to check for checkmate
-     * @param move the move to check if it can stop check
-     * @return True if there is a move that can stop checkmate
-     * @throws InvalidMoveException if the move is invalid
+     * @return True if the position has repeated three times
      */
-    private boolean moveStopsCheck(ChessMove move, TeamColor teamColor) throws InvalidMoveException {
-        ChessBoard temp = board;
-        try {
-            this.board = (ChessBoard) board.clone();
-            makeMove(move);
-            return (!isInCheck(teamColor));
-        } catch (CloneNotSupportedException e) {
-            throw new AssertionError("can't clone: " + this.board, e);
-        } finally {
-            this.board = temp;
-        }
+    public boolean isThreefoldRepetition() {
+        return board.getRepetitions() >= 2;
     }
 
+//Private methods
     /**
-     * Determines the position of the king for a given team.
+     * Determines if the team last analyzed on this thread has any legal move.
      *
-     * @param teamColor which team to check the king position for
-     * @return The position of the king for the given team, or null if not found
+     * @return True if at least one legal move exists
      */
-    private ChessPosition kingPosition(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType().equals(ChessPiece.PieceType.KING)) {
-                    return position;
-                }
-            }
-        }
-        return null;
+    private static boolean hasLegalMove(Scratch scratch) {
+        scratch.moves.clear();
+        scratch.generator.generate(scratch.moves);
+        return !scratch.moves.isEmpty();
     }
 
     /**
-     * Gets all possible moves for a given team
+     * Gets the legal move generator analyzed for a team in the current position.
+     * The analysis is kept until the board or team changes, so repeated
+     * validMoves calls on one position from the same thread share it.
      *
-     * @param teamColor which team to get all moves for
-     * @return Collection of all possible moves for the given team
+     * @param scratch   the calling thread's scratch
+     * @param teamColor the team to analyze
+     * @return the analyzed generator
      */
-    private Collection<ChessMove> allMoves(TeamColor teamColor) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        for (int row = 1; row <= 8; row ++) {
-            for (int col = 1; col <= 8; col ++) {
-                ChessPiece piece = board.getPiece(new ChessPosition(row,col));
-                if (piece != null && piece.getTeamColor().equals(teamColor)) {
-                    moves.addAll(piece.pieceMoves(board, new ChessPosition(row,col)));
-                }
-            }
+    private LegalMoveGenerator analyze(Scratch scratch, TeamColor teamColor) {
+        long key = board.getZobristKey();
+        if (board != scratch.analyzedBoard || key != scratch.analyzedKey || teamColor != scratch.analyzedTeam) {
+            scratch.generator.analyze(board, teamColor);
+            scratch.analyzedBoard = board;
+            scratch.analyzedKey = key;
+            scratch.analyzedTeam = teamColor;
+        }
+        return scratch.generator;
+    }
+
+    private static int skipSpaces(CharSequence text, int index) {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int digit(CharSequence fen, int index) {
+        char c = fen.charAt(index);
+        if (c < '0' || c > '9') {
+            throw badFen(fen);
         }
-        return moves;
+        return c - '0';
+    }
+
+    private static IllegalArgumentException badFen(CharSequence fen) {
+        return new IllegalArgumentException("invalid FEN: " + fen);
+    }
+
+    /**
+     * One thread's move list and legal move generator, and the board, key and
+     * team the generator was last analyzed for
+     */
+    private static final class Scratch {
+        private final MoveList moves = new MoveList();
+        private final LegalMoveGenerator generator = new LegalMoveGenerator();
+        private ChessBoard analyzedBoard;
+        private long analyzedKey;
+        private TeamColor analyzedTeam;
     }
 
 // Override methods
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((board == null) ? 0 : board.hashCode());
-        result = prime * result + ((currentTeamColor == null) ? 0 : currentTeamColor.hashCode());
-        return result;
+        return (board == null) ? 0 : Long.hashCode(getZobristKey());
     }
 
     @Override
@@ -288,7 +464,9 @@ public class ChessGame {
         if (board == null) {
             if (other.board != null)
                 return false;
-        } else if (!board.equals(other.board))
+        } else if (!board.equals(other.board)
+                || board.getCastlingRights() != other.board.getCastlingRights()
+                || board.getEnPassantSquare() != other.board.getEnPassantSquare())
             return false;
         if (currentTeamColor != other.currentTeamColor)
             return false;
@@ -20,6 +20,40 @@ public class ChessMove {
     }
 
 // Public Methods
+    /**
+     * Gets the shared instance for a move. Moves are immutable, so hot paths use
+     * these instead of allocating. Moves to or from positions off the board are
+     * built new, as {@link ChessPosition#of(int, int)} does.
+     *
+     * @param startPosition  the starting position
+     * @param endPosition    the ending position
+     * @param promotionPiece the piece to promote to, or null
+     * @return the move
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                                        ChessPiece.PieceType promotionPiece) {
+        if (!isOnBoard(startPosition) || !isOnBoard(endPosition)) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(Bitboards.square(startPosition), Bitboards.square(endPosition), promotionPiece);
+    }
+
+    /**
+     * Gets the shared instance for a move between square indexes
+     *
+     * @param from           the starting square index
+     * @param to             the ending square index
+     * @param promotionPiece the piece to promote to, or null
+     * @return the move
+     */
+    public static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        int promotion = Cache.promotionSlot(promotionPiece);
+        if (promotion < 0) {
+            return new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotionPiece);
+        }
+        return Cache.MOVES[(from * 64 + to) * Cache.PROMOTIONS.length + promotion];
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -44,6 +78,54 @@ public class ChessMove {
         return promotionPiece;
     }
 
+//Private methods
+    private static boolean isOnBoard(ChessPosition position) {
+        return position != null && position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    /**
+     * Table of every from/to/promotion move, built the first time one is
+     * asked for.
+     */
+    private static final class Cache {
+        private static final ChessPiece.PieceType[] PROMOTIONS = {
+            null,
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT
+        };
+        private static final ChessMove[] MOVES = new ChessMove[64 * 64 * PROMOTIONS.length];
+
+        static {
+            for (int from = 0; from < 64; from++) {
+                for (int to = 0; to < 64; to++) {
+                    for (int promotion = 0; promotion < PROMOTIONS.length; promotion++) {
+                        MOVES[(from * 64 + to) * PROMOTIONS.length + promotion] =
+                                new ChessMove(ChessPosition.of(from), ChessPosition.of(to), PROMOTIONS[promotion]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the table slot for a promotion piece, or -1 if it cannot be promoted to
+         */
+        private static int promotionSlot(ChessPiece.PieceType promotionPiece) {
+            if (promotionPiece == null) {
+                return 0;
+            }
+            return switch (promotionPiece) {
+                case QUEEN -> 1;
+                case ROOK -> 2;
+                case BISHOP -> 3;
+                case KNIGHT -> 4;
+                default -> -1;
+            };
+        }
+    }
+
 // Override Methods
     @Override
     public int hashCode() {
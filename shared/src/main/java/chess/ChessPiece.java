@@ -18,6 +18,16 @@ import chess.movecalculators.RookMoveCalculator;
  */
 public class ChessPiece implements Cloneable {
 
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[ChessBoard.index(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final ChessPiece.PieceType type;
 
@@ -27,6 +37,28 @@ public class ChessPiece implements Cloneable {
     }
 
 // public methods
+    /**
+     * Gets the shared instance for a piece. Pieces are immutable, so hot paths
+     * use these instead of allocating.
+     *
+     * @param pieceColor the team of the piece
+     * @param type       the type of the piece
+     * @return the piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[ChessBoard.index(pieceColor, type)];
+    }
+
+    /**
+     * Gets the shared instance for a bitboard index
+     *
+     * @param index the index, see {@link #getIndex()}
+     * @return the piece
+     */
+    public static ChessPiece of(int index) {
+        return PIECES[index];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -53,6 +85,14 @@ public class ChessPiece implements Cloneable {
         return type;
     }
 
+    /**
+     * @return the index of this piece's bitboard on a {@link ChessBoard},
+     * from 0 to 11
+     */
+    public int getIndex() {
+        return ChessBoard.index(pieceColor, type);
+    }
+
     /**
      * Calculates all the positions a chess piece can move to
      * Does not take into account moves that are illegal due to leaving the king in
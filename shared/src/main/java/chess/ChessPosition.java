@@ -8,6 +8,14 @@ package chess;
  */
 public class ChessPosition {
 
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new ChessPosition(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
     private final int row;
     private final int col;
     
@@ -17,6 +25,31 @@ public class ChessPosition {
     }
 
 // Public Methods
+    /**
+     * Gets the shared instance for a position. Positions are immutable, so hot
+     * paths use these instead of allocating.
+     *
+     * @param row the row, 1 to 8
+     * @param col the column, 1 to 8
+     * @return the position
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[Bitboards.square(row, col)];
+    }
+
+    /**
+     * Gets the shared instance for a square index
+     *
+     * @param square the square index, see {@link Bitboards#square(int, int)}
+     * @return the position
+     */
+    public static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
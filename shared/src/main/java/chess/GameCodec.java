@@ -0,0 +1,111 @@
+package chess;
+
+/**
+ * Encodes a {@link ChessGame} in a fixed {@value #SIZE} bytes, for storing
+ * games and sending them to clients far more compactly than as JSON.
+ * <p>
+ * The first 32 bytes hold one nibble per square, a1 first and low nibble
+ * first: 0 for an empty square, otherwise the piece's bitboard index plus 1.
+ * They are followed by the side to move and castling rights in one byte, the
+ * en passant square (0 for none, otherwise on row 3 or 6), the halfmove clock capped at 255, and the
+ * fullmove number as an unsigned big-endian short.
+ * <p>
+ * Encoding writes into a caller's array and decoding reads into a caller's
+ * game, so neither allocates; the one-argument forms are conveniences that
+ * create the array or game.
+ */
+public final class GameCodec {
+
+    /** Number of bytes in an encoded game */
+    public static final int SIZE = 37;
+
+    private static final int FLAGS = 32;
+    private static final int EN_PASSANT = 33;
+    private static final int CLOCK = 34;
+    private static final int FULLMOVE = 35;
+    private static final int BLACK_TO_MOVE = 1;
+
+    private GameCodec() { }
+
+// Public Methods
+    /**
+     * @param game the game to encode
+     * @return a new array of {@value #SIZE} bytes holding the game
+     */
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[SIZE];
+        encode(game, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Writes a game into an array
+     *
+     * @param game   the game to encode
+     * @param bytes  the array to write to
+     * @param offset where in the array to start, with {@value #SIZE} bytes after it
+     */
+    public static void encode(ChessGame game, byte[] bytes, int offset) {
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            bytes[offset + square / 2] = (byte) (nibble(board.getPiece(square)) | nibble(board.getPiece(square + 1)) << 4);
+        }
+        int turn = (game.getTeamTurn() == ChessGame.TeamColor.BLACK) ? BLACK_TO_MOVE : 0;
+        bytes[offset + FLAGS] = (byte) (turn | board.getCastlingRights() << 1);
+        bytes[offset + EN_PASSANT] = (byte) Math.max(board.getEnPassantSquare(), 0);
+        bytes[offset + CLOCK] = (byte) Math.min(board.getHalfmoveClock(), 255);
+        int fullmoves = Math.min(game.getFullmoveNumber(), 0xFFFF);
+        bytes[offset + FULLMOVE] = (byte) (fullmoves >>> 8);
+        bytes[offset + FULLMOVE + 1] = (byte) fullmoves;
+    }
+
+    /**
+     * @param bytes an array of {@value #SIZE} bytes written by {@link #encode(ChessGame)}
+     * @return a new game in the encoded position
+     * @throws IllegalArgumentException if the bytes do not hold a game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        ChessGame game = new ChessGame();
+        decode(bytes, 0, game);
+        return game;
+    }
+
+    /**
+     * Reads a game out of an array into an existing game, replacing its
+     * position and forgetting the moves made on its board
+     *
+     * @param bytes  the array to read from
+     * @param offset where in the array the encoded game starts
+     * @param game   the game to load the position into
+     * @throws IllegalArgumentException if the bytes do not hold a game
+     */
+    public static void decode(byte[] bytes, int offset, ChessGame game) {
+        int enPassant = bytes[offset + EN_PASSANT] & 0xFF;
+        if (enPassant != 0 && (enPassant < 16 || enPassant >= 24) && (enPassant < 40 || enPassant >= 48)) {
+            throw new IllegalArgumentException("invalid en passant square " + enPassant);
+        }
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            int nibble = (bytes[offset + square / 2] >>> ((square & 1) * 4)) & 0xF;
+            if (nibble > 12) {
+                throw new IllegalArgumentException("invalid piece " + nibble + " on square " + square);
+            }
+            ChessPiece piece = (nibble == 0) ? null : ChessPiece.of(nibble - 1);
+            if (board.getPiece(square) != piece) {
+                board.addPiece(ChessPosition.of(square), piece);
+            }
+        }
+        int flags = bytes[offset + FLAGS];
+        board.setCastlingRights(flags >>> 1);
+        board.setEnPassantSquare(enPassant);
+        board.setHalfmoveClock(bytes[offset + CLOCK] & 0xFF);
+        board.clearHistory();
+        game.setTeamTurn(((flags & BLACK_TO_MOVE) != 0) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setFullmoveNumber((bytes[offset + FULLMOVE] & 0xFF) << 8 | bytes[offset + FULLMOVE + 1] & 0xFF);
+    }
+
+//Private methods
+    private static int nibble(ChessPiece piece) {
+        return (piece == null) ? 0 : piece.getIndex() + 1;
+    }
+}
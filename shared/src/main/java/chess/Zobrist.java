@@ -0,0 +1,125 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the
+ * keys of its features, so adding or removing a piece updates it with one XOR.
+ * The keys come from a fixed seed, so a position hashes the same on every run.
+ */
+public final class Zobrist {
+
+    private static final long[] PIECE_KEYS = new long[12 * 64];
+
+    /** Mixed in when black is to move */
+    public static final long SIDE_KEY;
+
+    // one key per combination of castling rights, and per en passant file
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+
+    static {
+        long seed = 0x2406D2F1A4C3B5E7L;
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            seed = next(seed);
+            PIECE_KEYS[i] = mix(seed);
+        }
+        seed = next(seed);
+        SIDE_KEY = mix(seed);
+
+        long[] rights = new long[4];
+        for (int i = 0; i < rights.length; i++) {
+            seed = next(seed);
+            rights[i] = mix(seed);
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            for (int right = 0; right < rights.length; right++) {
+                if ((i & (1 << right)) != 0) {
+                    CASTLING_KEYS[i] ^= rights[right];
+                }
+            }
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            seed = next(seed);
+            EN_PASSANT_KEYS[i] = mix(seed);
+        }
+    }
+
+    private Zobrist() { }
+
+// Public Methods
+    /**
+     * @param index  the piece's bitboard index, see {@link ChessPiece#getIndex()}
+     * @param square the square index
+     * @return the key for that piece standing on that square
+     */
+    public static long piece(int index, int square) {
+        return PIECE_KEYS[index * 64 + square];
+    }
+
+    /**
+     * @param rights castling rights, see {@link ChessBoard#getCastlingRights()}
+     * @return the key for that set of rights, 0 for none
+     */
+    public static long castling(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    /**
+     * @param square the en passant square, or -1 for none
+     * @return the key for an en passant capture onto that square's file, 0 for none
+     */
+    public static long enPassant(int square) {
+        return (square < 0) ? 0L : EN_PASSANT_KEYS[square & 7];
+    }
+
+    /**
+     * Computes a board's key from scratch. {@link ChessBoard#getZobristKey()}
+     * keeps the same value up to date incrementally.
+     *
+     * @param board the board to hash
+     * @return the XOR of the keys of every piece on the board, the castling
+     * rights and the en passant square
+     */
+    public static long compute(ChessBoard board) {
+        long key = castling(board.getCastlingRights()) ^ enPassant(board.getEnPassantSquare());
+        for (int index = 0; index < 12; index++) {
+            for (long bits = board.pieces[index]; bits != 0; bits &= bits - 1) {
+                key ^= piece(index, Bitboards.first(bits));
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Computes a board's pawn key from scratch, see {@link ChessBoard#getPawnKey()}.
+     *
+     * @param board the board to hash
+     * @return the XOR of the keys of every pawn on the board
+     */
+    public static long computePawns(ChessBoard board) {
+        long key = 0L;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int index = ChessBoard.index(color, ChessPiece.PieceType.PAWN);
+            for (long bits = board.pieces[index]; bits != 0; bits &= bits - 1) {
+                key ^= piece(index, Bitboards.first(bits));
+            }
+        }
+        return key;
+    }
+
+//Private methods
+    /**
+     * Advances a SplitMix64 state.
+     */
+    private static long next(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Scrambles a SplitMix64 state into an output value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,236 @@
+package chess.book;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.movecalculators.Move;
+
+/**
+ * An opening book in the Polyglot file layout: a sequence of 16-byte
+ * big-endian entries, each a 64-bit position key, a 16-bit move, a 16-bit
+ * weight and 32 bits of learning data, sorted by key as an unsigned number.
+ * <p>
+ * The file is memory-mapped and searched in place, so looking up a position
+ * reads a handful of pages and allocates nothing. A book is safe to share
+ * between threads.
+ * <p>
+ * Keys are Polyglot's own, see {@link PolyglotKey}, so books made by other
+ * Polyglot tools can be read as well as ones built with
+ * {@link OpeningBookBuilder}.
+ */
+public class OpeningBook implements Closeable {
+
+    /** Size of one book entry in bytes */
+    public static final int ENTRY_SIZE = 16;
+
+    // by Polyglot promotion code
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+        null, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK,
+        ChessPiece.PieceType.QUEEN,
+    };
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(FileChannel channel, MappedByteBuffer entries) {
+        this.channel = channel;
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_SIZE;
+    }
+
+// Public Methods
+    /**
+     * Opens and maps a book file
+     *
+     * @param path the book file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            if (length % ENTRY_SIZE != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException(path + " is not an opening book");
+            }
+            return new OpeningBook(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the first entry for a position by binary search
+     *
+     * @param key the position's Polyglot key, see {@link PolyglotKey}
+     * @return the index of the position's first entry, or -1 if the book does
+     * not have the position
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return (low < size && key(low) == key) ? low : -1;
+    }
+
+    /**
+     * @param index an entry index
+     * @return the entry's position key
+     */
+    public long key(int index) {
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    /**
+     * @param index an entry index
+     * @return the entry's move in Polyglot encoding
+     */
+    public int polyglotMove(int index) {
+        return entries.getShort(index * ENTRY_SIZE + 8) & 0xFFFF;
+    }
+
+    /**
+     * @param index an entry index
+     * @return the entry's weight, how often the move should be chosen
+     */
+    public int weight(int index) {
+        return entries.getShort(index * ENTRY_SIZE + 10) & 0xFFFF;
+    }
+
+    /**
+     * Picks the most heavily weighted book move for a game's side to move
+     *
+     * @param game the game to look up
+     * @return the encoded move, see {@link Move}, or {@link Move#NONE} if the
+     * book does not have the position
+     */
+    public int bestMove(ChessGame game) {
+        int first = find(PolyglotKey.of(game));
+        if (first < 0) {
+            return Move.NONE;
+        }
+        int best = first;
+        for (int i = first + 1; i < size && key(i) == key(first); i++) {
+            if (weight(i) > weight(best)) {
+                best = i;
+            }
+        }
+        return toMove(game.getBoard(), polyglotMove(best));
+    }
+
+    /**
+     * Picks a book move for a game's side to move at random, each move as
+     * likely as its share of the position's total weight
+     *
+     * @param game   the game to look up
+     * @param random the source of randomness
+     * @return the encoded move, see {@link Move}, or {@link Move#NONE} if the
+     * book does not have the position or all its moves have weight 0
+     */
+    public int randomMove(ChessGame game, RandomGenerator random) {
+        long key = PolyglotKey.of(game);
+        int first = find(key);
+        if (first < 0) {
+            return Move.NONE;
+        }
+        int total = 0;
+        int end = first;
+        for (; end < size && key(end) == key; end++) {
+            total += weight(end);
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+        int roll = random.nextInt(total);
+        int chosen = first;
+        while (roll >= weight(chosen)) {
+            roll -= weight(chosen++);
+        }
+        return toMove(game.getBoard(), polyglotMove(chosen));
+    }
+
+    /**
+     * Converts a Polyglot move to this project's encoding. Polyglot writes
+     * castling as the king capturing its own rook and does not mark en
+     * passant, so both are recognized from the pieces on the board.
+     *
+     * @param board the board the move is made on
+     * @param move  the move in Polyglot encoding
+     * @return the encoded move, see {@link Move}
+     */
+    public static int toMove(ChessBoard board, int move) {
+        int to = move & 63;
+        int from = (move >>> 6) & 63;
+        int promotion = (move >>> 12) & 7;
+        if (promotion != 0) {
+            return Move.promotion(from, to, PROMOTIONS[Math.min(promotion, 4)]);
+        }
+        ChessPiece piece = board.getPiece(from);
+        ChessPiece target = board.getPiece(to);
+        if (piece == null) {
+            return Move.of(from, to);
+        }
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && ((target != null
+                && target.getTeamColor() == piece.getTeamColor()) || Math.abs(to - from) == 2)) {
+            return Move.castling(from, (to > from) ? from + 2 : from - 2);
+        }
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && target == null && (from & 7) != (to & 7)) {
+            return Move.enPassant(from, to);
+        }
+        return Move.of(from, to);
+    }
+
+    /**
+     * Converts a move to Polyglot encoding, castling as the king capturing
+     * its own rook
+     *
+     * @param move the encoded move, see {@link Move}
+     * @return the move in Polyglot encoding
+     */
+    public static int toPolyglot(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (Move.kind(move) == Move.CASTLING) {
+            to = (to > from) ? from + 3 : from - 4;
+        }
+        int promotion = 0;
+        if (Move.promotion(move) != null) {
+            promotion = switch (Move.promotion(move)) {
+                case KNIGHT -> 1;
+                case BISHOP -> 2;
+                case ROOK -> 3;
+                default -> 4;
+            };
+        }
+        return promotion << 12 | from << 6 | to;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,155 @@
+package chess.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.movecalculators.Move;
+import chess.pgn.PgnGame;
+
+/**
+ * Collects moves played in positions and writes them as an {@link OpeningBook}.
+ * <p>
+ * Games are added one at a time, typically straight from a
+ * {@link chess.pgn.PgnReader}; each move of a game's opening adds to the
+ * weight of that move in its position, more for the winner's moves than the
+ * loser's. When the book is written, each position's weights are scaled down
+ * to fit in 16 bits if they need to be, and its moves are sorted heaviest
+ * first.
+ */
+public class OpeningBookBuilder {
+
+    /** Weight added for a move by the side that went on to win */
+    public static final int WIN_WEIGHT = 2;
+    /** Weight added for a move in a drawn or unfinished game */
+    public static final int DRAW_WEIGHT = 1;
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    // position key -> encoded move -> total weight
+    private final Map<Long, Map<Integer, Long>> positions = new HashMap<>();
+
+// Public Methods
+    /**
+     * Adds weight to a move in a position
+     *
+     * @param key    the position's Polyglot key, see {@link PolyglotKey}
+     * @param move   the encoded move, see {@link Move}
+     * @param weight how much to add
+     */
+    public void add(long key, int move, long weight) {
+        positions.computeIfAbsent(key, k -> new HashMap<>(4)).merge(move, weight, Long::sum);
+    }
+
+    /**
+     * Adds the opening moves of a game, weighted by the game's result: moves
+     * by the winner count {@link #WIN_WEIGHT}, moves by the loser nothing, and
+     * moves of drawn or unfinished games {@link #DRAW_WEIGHT}.
+     *
+     * @param game     the game to add
+     * @param maxPlies how many moves by either side to add from the start
+     */
+    public void addGame(PgnGame game, int maxPlies) {
+        ChessGame position = game.startingPosition();
+        ChessBoard board = position.getBoard();
+        List<ChessMove> moves = game.getMoves();
+        for (int ply = 0; ply < Math.min(maxPlies, moves.size()); ply++) {
+            ChessMove move = moves.get(ply);
+            int weight = weight(game.getResult(), position.getTeamTurn());
+            if (weight > 0) {
+                add(PolyglotKey.of(position), toEncoded(board, move), weight);
+            }
+            board.makeMove(move);
+            position.setTeamTurn(position.getTeamTurn().opp());
+        }
+    }
+
+    /**
+     * @return the number of positions collected
+     */
+    public int positions() {
+        return positions.size();
+    }
+
+    /**
+     * Writes the book to a file
+     *
+     * @param path the book file, created or replaced
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel);
+        }
+    }
+
+    /**
+     * Writes the book's entries, sorted by key, to a channel
+     *
+     * @param channel the channel to write to, which is left open
+     * @throws IOException if the channel cannot be written
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        List<Long> keys = new ArrayList<>(positions.keySet());
+        keys.sort(Long::compareUnsigned);
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.ENTRY_SIZE * 4096);
+        for (long key : keys) {
+            List<Map.Entry<Integer, Long>> moves = new ArrayList<>(positions.get(key).entrySet());
+            moves.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+            long heaviest = moves.get(0).getValue();
+            for (Map.Entry<Integer, Long> move : moves) {
+                long weight = move.getValue();
+                if (heaviest > MAX_WEIGHT) {
+                    weight = Math.max(1, weight * MAX_WEIGHT / heaviest);
+                }
+                if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                    drain(buffer, channel);
+                }
+                buffer.putLong(key)
+                        .putShort((short) OpeningBook.toPolyglot(move.getKey()))
+                        .putShort((short) weight)
+                        .putInt(0);
+            }
+        }
+        drain(buffer, channel);
+    }
+
+//Private methods
+    /**
+     * @return the weight a move by a team earns from a game's result
+     */
+    private static int weight(String result, ChessGame.TeamColor mover) {
+        return switch (result) {
+            case "1-0" -> (mover == ChessGame.TeamColor.WHITE) ? WIN_WEIGHT : 0;
+            case "0-1" -> (mover == ChessGame.TeamColor.BLACK) ? WIN_WEIGHT : 0;
+            default -> DRAW_WEIGHT;
+        };
+    }
+
+    /**
+     * @return a move encoded with castling and en passant marked, which a
+     * plain {@link Move#of(ChessMove)} leaves out
+     */
+    private static int toEncoded(ChessBoard board, ChessMove move) {
+        return OpeningBook.toMove(board, OpeningBook.toPolyglot(Move.of(move)));
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,268 @@
+package chess.engine;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.book.OpeningBook;
+import chess.movecalculators.LegalMoveGenerator;
+import chess.movecalculators.Move;
+import chess.movecalculators.MoveList;
+import chess.tablebase.Tablebases;
+
+/**
+ * Finds the best move of a game's side to move with an alpha-beta search.
+ * <p>
+ * The search runs on a copy of the game's board, so the game itself is never
+ * changed. {@link #stop()} may be called from another thread to end a search
+ * early; the result of the last completed depth is then returned.
+ * <p>
+ * Positions searched are kept in a transposition table that lasts between
+ * searches, so searching the next move of a game reuses earlier work.
+ * <p>
+ * With more than one thread the search is a "lazy SMP" search: helper threads
+ * search the same position on their own board copies, sharing only the
+ * transposition table, and the results they store there let the main thread
+ * search deeper. Only the main thread's result is reported, so the move
+ * returned never depends on which helper finished first.
+ * <p>
+ * With an {@link OpeningBook} set, positions found in the book are answered
+ * with the book's move without searching. With {@link Tablebases} set,
+ * positions they cover are answered from the tables, and the search scores
+ * any position it reaches that they cover as an exact mate or draw.
+ * <p>
+ * A {@link SearchListener} is told what each iteration of the main thread
+ * did, and each iteration of every thread is also recorded as a Flight
+ * Recorder event, {@code chess.SearchIteration}, when a recording enables it.
+ */
+public class Engine {
+
+    /** Transposition table size used when none is given */
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final AtomicBoolean stop = new AtomicBoolean();
+    private TranspositionTable table;
+    private int threads = 1;
+    private OpeningBook book;
+    private Tablebases tablebases;
+    private SearchListener listener;
+
+    public Engine() {
+        this(DEFAULT_HASH_MEGABYTES);
+    }
+
+    /**
+     * @param hashMegabytes the size of the transposition table
+     */
+    public Engine(int hashMegabytes) {
+        this.table = new TranspositionTable(hashMegabytes);
+    }
+
+// Public Methods
+    /**
+     * Searches a game's position for the side whose turn it is
+     *
+     * @param game   the game to search, which is left unchanged
+     * @param limits when to stop searching
+     * @return the best move found and its score; a book or tablebase move has
+     * depth 0
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        ChessMove bookMove = bookMove(game);
+        if (bookMove != null) {
+            return new SearchResult(bookMove, 0, 0, 0, List.of(bookMove));
+        }
+        SearchResult tablebaseResult = tablebaseMove(game);
+        if (tablebaseResult != null) {
+            return tablebaseResult;
+        }
+        stop.set(false);
+        table.newSearch();
+
+        AtomicBoolean helpersStop = new AtomicBoolean();
+        LongAdder searchNodes = new LongAdder();
+        SearchLimits helperLimits = new SearchLimits(limits.getDepth(), 0, 0);
+        Thread[] workers = new Thread[threads - 1];
+        for (int i = 0; i < workers.length; i++) {
+            Searcher helper = new Searcher(game.getBoard().clone(), game.getTeamTurn(), helpersStop, table, tablebases,
+                    searchNodes);
+            int firstDepth = 1 + (i & 1);
+            workers[i] = new Thread(() -> helper.search(helperLimits, firstDepth), "search-helper-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+
+        Searcher main = new Searcher(game.getBoard().clone(), game.getTeamTurn(), stop, table, tablebases, searchNodes);
+        main.setListener(listener);
+        SearchResult result = main.search(limits, 1);
+
+        helpersStop.set(true);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), searchNodes.sum(),
+                result.getPrincipalVariation());
+    }
+
+    /**
+     * Asks a running search to finish as soon as possible
+     */
+    public void stop() {
+        stop.set(true);
+    }
+
+    /**
+     * Replaces the transposition table with an empty one of a new size. Must
+     * not be called while a search is running.
+     *
+     * @param megabytes the size of the transposition table
+     */
+    public void setHashSize(int megabytes) {
+        table = new TranspositionTable(megabytes);
+    }
+
+    /**
+     * Sets how many threads search at once. Must not be called while a search
+     * is running.
+     *
+     * @param threads the number of search threads, at least 1
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("need at least one search thread");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @return the number of search threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the opening book consulted before searching. Must not be called
+     * while a search is running.
+     *
+     * @param book the book, or null to always search
+     */
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Sets the endgame tables consulted before and during searches. Must not
+     * be called while a search is running.
+     *
+     * @param tablebases the tables, or null to search every position
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Sets a listener told the statistics of each iteration the main search
+     * thread finishes. Must not be called while a search is running.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Forgets every position searched so far, as when starting a new game
+     */
+    public void clearHash() {
+        table.clear();
+    }
+
+    /**
+     * @param score a score returned by a search
+     * @return True if the score is a forced mate for either side
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= Searcher.MATE_BOUND;
+    }
+
+    /**
+     * @param score a mate score
+     * @return the number of moves (not plies) until mate, negative if the side
+     * to move is being mated
+     */
+    public static int mateIn(int score) {
+        int plies = Searcher.MATE - Math.abs(score);
+        return (score > 0) ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+//Private methods
+    /**
+     * Looks a game's position up in the book. A book move is only trusted if
+     * it is legal, which guards against key collisions and damaged books.
+     *
+     * @return the book move, or null if there is none
+     */
+    private ChessMove bookMove(ChessGame game) {
+        int move = (book == null) ? Move.NONE : book.bestMove(game);
+        if (move == Move.NONE) {
+            return null;
+        }
+        LegalMoveGenerator generator = new LegalMoveGenerator();
+        MoveList moves = new MoveList();
+        generator.analyze(game.getBoard(), game.getTeamTurn());
+        generator.generate(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return Move.toChessMove(move);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the move that wins fastest, failing that a drawing move, failing
+     * that the move that loses slowest, by looking up the position after each
+     * legal move in the tablebases
+     *
+     * @return the move and its score, or null if the tables do not cover
+     * every move
+     */
+    private SearchResult tablebaseMove(ChessGame game) {
+        if (tablebases == null || tablebases.probe(game) == Tablebases.NOT_FOUND) {
+            return null;
+        }
+        ChessBoard board = game.getBoard().clone();
+        LegalMoveGenerator generator = new LegalMoveGenerator();
+        MoveList moves = new MoveList();
+        generator.analyze(board, game.getTeamTurn());
+        generator.generate(moves);
+        int best = Move.NONE;
+        int bestScore = -Searcher.INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            int value = tablebases.probe(board, game.getTeamTurn().opp());
+            board.unmakeMove();
+            if (value == Tablebases.NOT_FOUND) {
+                return null;
+            }
+            int score = -Searcher.tablebaseScore(value, 1);
+            if (score > bestScore) {
+                best = moves.get(i);
+                bestScore = score;
+            }
+        }
+        if (best == Move.NONE) {
+            return null;
+        }
+        ChessMove move = Move.toChessMove(best);
+        return new SearchResult(move, bestScore, 0, 0, List.of(move));
+    }
+}
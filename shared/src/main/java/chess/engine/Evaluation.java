@@ -0,0 +1,177 @@
+package chess.engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation of a position: a tapered blend of the middlegame and
+ * endgame piece-square scores the board keeps up to date as it changes, plus
+ * pawn-structure terms for passed, doubled, isolated and backward pawns.
+ * <p>
+ * Pawn-structure terms are cached in a {@link PawnHashTable} by the board's
+ * pawn key, so on most nodes evaluating a leaf costs a table lookup and a few
+ * arithmetic operations. Each search thread has its own evaluation.
+ */
+final class Evaluation {
+
+    /** Piece values in centipawns for move ordering, by {@link ChessPiece.PieceType} ordinal */
+    static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+
+    private static final int PAWN_HASH_ENTRIES = 1 << 14;
+
+    // pawn-structure scores, middlegame and endgame
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    // by rank counted from the pawn's own side, 0-7
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+    private static final int[] PASSED_FREE_ENDGAME = {0, 0, 5, 10, 20, 35, 60, 0};
+
+    private static final long[] ADJACENT_FILES = new long[8];
+    /** Squares ahead of a pawn of each team on its own file */
+    private static final long[][] FORWARD = new long[2][64];
+    /** Squares ahead of a pawn of each team on its own and adjacent files */
+    private static final long[][] PASSED_SPAN = new long[2][64];
+    /** Squares beside and behind a pawn of each team on adjacent files */
+    private static final long[][] SUPPORT = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            if (file > 0) {
+                ADJACENT_FILES[file] |= Bitboards.FILE_A << (file - 1);
+            }
+            if (file < 7) {
+                ADJACENT_FILES[file] |= Bitboards.FILE_A << (file + 1);
+            }
+        }
+        int white = ChessGame.TeamColor.WHITE.ordinal();
+        int black = ChessGame.TeamColor.BLACK.ordinal();
+        for (int square = 0; square < 64; square++) {
+            long file = Bitboards.FILE_A << (square & 7);
+            long adjacent = ADJACENT_FILES[square & 7];
+            long above = (square >= 56) ? 0L : -1L << (square - (square & 7) + 8);
+            long below = (square < 8) ? 0L : -1L >>> (64 - (square - (square & 7)));
+            long rank = Bitboards.RANK_1 << (square - (square & 7));
+            FORWARD[white][square] = file & above;
+            FORWARD[black][square] = file & below;
+            PASSED_SPAN[white][square] = (file | adjacent) & above;
+            PASSED_SPAN[black][square] = (file | adjacent) & below;
+            SUPPORT[white][square] = adjacent & (below | rank);
+            SUPPORT[black][square] = adjacent & (above | rank);
+        }
+    }
+
+    private final PawnHashTable pawnTable = new PawnHashTable(PAWN_HASH_ENTRIES);
+    // pawn-structure scores being added up by scorePawns, from white's view
+    private int pawnMidgame;
+    private int pawnEndgame;
+
+    /**
+     * @param board     the position to evaluate
+     * @param teamColor the side to move
+     * @return the score in centipawns from the side to move's point of view
+     */
+    int evaluate(ChessBoard board, ChessGame.TeamColor teamColor) {
+        long pawnKey = board.getPawnKey();
+        int slot = pawnTable.find(pawnKey);
+        if (slot < 0) {
+            slot = analyzePawns(board, pawnKey);
+        }
+
+        int midgame = board.getMidgameScore() + pawnTable.midgame(slot);
+        int endgame = board.getEndgameScore() + pawnTable.endgame(slot)
+                + freePassers(board, ChessGame.TeamColor.WHITE, pawnTable.whitePassed(slot))
+                - freePassers(board, ChessGame.TeamColor.BLACK, pawnTable.blackPassed(slot));
+
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return (teamColor == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+
+//Private methods
+    /**
+     * Scores both teams' pawn structures and stores them in the pawn table.
+     *
+     * @return the slot written
+     */
+    private int analyzePawns(ChessBoard board, long pawnKey) {
+        long whitePawns = board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        long blackPawns = board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+        pawnMidgame = 0;
+        pawnEndgame = 0;
+        long whitePassed = scorePawns(ChessGame.TeamColor.WHITE, whitePawns, blackPawns);
+        long blackPassed = scorePawns(ChessGame.TeamColor.BLACK, blackPawns, whitePawns);
+        return pawnTable.store(pawnKey, pawnMidgame, pawnEndgame, whitePassed, blackPassed);
+    }
+
+    /**
+     * Adds one team's pawn-structure scores to the running totals. Pawns
+     * standing on a back rank, which only a hand-built board can have, are
+     * ignored.
+     *
+     * @return the team's passed pawns
+     */
+    private long scorePawns(ChessGame.TeamColor teamColor, long own, long enemy) {
+        int color = teamColor.ordinal();
+        int forward = (teamColor == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        int midgame = 0;
+        int endgame = 0;
+        long passed = 0L;
+        for (long bits = own & ~(Bitboards.RANK_1 | Bitboards.RANK_8); bits != 0; bits &= bits - 1) {
+            int square = Bitboards.first(bits);
+            if ((FORWARD[color][square] & own) != 0) {
+                midgame += DOUBLED_MIDGAME;
+                endgame += DOUBLED_ENDGAME;
+            } else if ((PASSED_SPAN[color][square] & enemy) == 0) {
+                int rank = relativeRank(teamColor, square);
+                midgame += PASSED_MIDGAME[rank];
+                endgame += PASSED_ENDGAME[rank];
+                passed |= Bitboards.mask(square);
+            }
+
+            if ((ADJACENT_FILES[square & 7] & own) == 0) {
+                midgame += ISOLATED_MIDGAME;
+                endgame += ISOLATED_ENDGAME;
+            } else if ((SUPPORT[color][square] & own) == 0
+                    && (Bitboards.PAWN_ATTACKS[color][square + forward] & enemy) != 0) {
+                midgame += BACKWARD_MIDGAME;
+                endgame += BACKWARD_ENDGAME;
+            }
+        }
+        int sign = (teamColor == ChessGame.TeamColor.WHITE) ? 1 : -1;
+        pawnMidgame += sign * midgame;
+        pawnEndgame += sign * endgame;
+        return passed;
+    }
+
+    /**
+     * @return the endgame bonus for passed pawns whose next square is empty
+     */
+    private static int freePassers(ChessBoard board, ChessGame.TeamColor teamColor, long passed) {
+        int forward = (teamColor == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        long occupied = board.getOccupied();
+        int bonus = 0;
+        for (long bits = passed; bits != 0; bits &= bits - 1) {
+            int square = Bitboards.first(bits);
+            if ((occupied & Bitboards.mask(square + forward)) == 0) {
+                bonus += PASSED_FREE_ENDGAME[relativeRank(teamColor, square)];
+            }
+        }
+        return bonus;
+    }
+
+    /**
+     * @return the rank of a square counted from the team's own back rank, 0-7
+     */
+    private static int relativeRank(ChessGame.TeamColor teamColor, int square) {
+        int rank = square >>> 3;
+        return (teamColor == ChessGame.TeamColor.WHITE) ? rank : 7 - rank;
+    }
+}
@@ -0,0 +1,88 @@
+package chess.engine;
+
+/**
+ * A small cache of pawn-structure evaluations keyed by the board's pawn key.
+ * <p>
+ * Pawns move rarely compared to other pieces, so most positions in a search
+ * share their pawn structure with a position already evaluated. Each slot
+ * holds one structure's middlegame and endgame scores and both teams' passed
+ * pawns; a new structure always replaces whatever was in its slot.
+ * <p>
+ * A table belongs to one search thread and is not thread safe. Empty slots
+ * have key 0, which is also the key of a board with no pawns, whose scores
+ * and passed pawns are all 0 as well.
+ */
+final class PawnHashTable {
+
+    private final long[] keys;
+    private final int[] midgame;
+    private final int[] endgame;
+    private final long[] whitePassed;
+    private final long[] blackPassed;
+    private final int mask;
+
+    /**
+     * @param entries the number of slots, rounded down to a power of two
+     */
+    PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(entries, 1));
+        this.keys = new long[size];
+        this.midgame = new int[size];
+        this.endgame = new int[size];
+        this.whitePassed = new long[size];
+        this.blackPassed = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param pawnKey the board's pawn key
+     * @return the slot holding that pawn structure, or -1 if it is not stored
+     */
+    int find(long pawnKey) {
+        int slot = (int) pawnKey & mask;
+        return (keys[slot] == pawnKey) ? slot : -1;
+    }
+
+    /**
+     * Stores a pawn structure's evaluation over its slot
+     *
+     * @return the slot written
+     */
+    int store(long pawnKey, int midgameScore, int endgameScore, long white, long black) {
+        int slot = (int) pawnKey & mask;
+        keys[slot] = pawnKey;
+        midgame[slot] = midgameScore;
+        endgame[slot] = endgameScore;
+        whitePassed[slot] = white;
+        blackPassed[slot] = black;
+        return slot;
+    }
+
+    /**
+     * @return the middlegame pawn-structure score of a slot, from white's view
+     */
+    int midgame(int slot) {
+        return midgame[slot];
+    }
+
+    /**
+     * @return the endgame pawn-structure score of a slot, from white's view
+     */
+    int endgame(int slot) {
+        return endgame[slot];
+    }
+
+    /**
+     * @return the mask of white's passed pawns in a slot
+     */
+    long whitePassed(int slot) {
+        return whitePassed[slot];
+    }
+
+    /**
+     * @return the mask of black's passed pawns in a slot
+     */
+    long blackPassed(int slot) {
+        return blackPassed[slot];
+    }
+}
@@ -0,0 +1,54 @@
+package chess.engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one finished search iteration, carrying the same
+ * counters as {@link SearchStatistics}. Recorded by every search thread while
+ * a recording has the event enabled; costs nothing otherwise.
+ */
+@Name("chess.SearchIteration")
+@Label("Search Iteration")
+@Category({"Chess", "Engine"})
+@Description("Counters of one iterative-deepening iteration")
+@StackTrace(false)
+final class SearchIterationEvent extends Event {
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Score")
+    int score;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Quiescence Nodes")
+    long quiescenceNodes;
+
+    @Label("Table Probes")
+    long tableProbes;
+
+    @Label("Table Hits")
+    long tableHits;
+
+    @Label("Beta Cutoffs")
+    long betaCutoffs;
+
+    @Label("First Move Cutoffs")
+    long firstMoveCutoffs;
+
+    @Label("Null Move Tries")
+    long nullMoveTries;
+
+    @Label("Null Move Cutoffs")
+    long nullMoveCutoffs;
+
+    @Label("Effective Branching Factor")
+    double effectiveBranchingFactor;
+}
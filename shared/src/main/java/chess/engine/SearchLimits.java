@@ -0,0 +1,66 @@
+package chess.engine;
+
+/**
+ * How long a search may run. A limit of 0 means unlimited; a search with no
+ * limits at all runs until {@link Engine#stop()} is called.
+ */
+public class SearchLimits {
+
+    private final int depth;
+    private final long moveTimeMillis;
+    private final long nodes;
+
+    public SearchLimits(int depth, long moveTimeMillis, long nodes) {
+        this.depth = depth;
+        this.moveTimeMillis = moveTimeMillis;
+        this.nodes = nodes;
+    }
+
+// Public Methods
+    /**
+     * @return limits that stop after completing the given depth
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /**
+     * @return limits that stop after the given number of milliseconds
+     */
+    public static SearchLimits moveTime(long millis) {
+        return new SearchLimits(0, millis, 0);
+    }
+
+    /**
+     * @return limits that stop after visiting the given number of nodes
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, 0, nodes);
+    }
+
+    /**
+     * @return the deepest depth to search, or 0 for no limit
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the time to search for in milliseconds, or 0 for no limit
+     */
+    public long getMoveTimeMillis() {
+        return moveTimeMillis;
+    }
+
+    /**
+     * @return the number of nodes to search, or 0 for no limit
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits [depth=" + depth + ", moveTimeMillis=" + moveTimeMillis + ", nodes=" + nodes + "]";
+    }
+}
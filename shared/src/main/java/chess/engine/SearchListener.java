@@ -0,0 +1,17 @@
+package chess.engine;
+
+/**
+ * Receives the statistics of each finished iteration of a search, for tuning
+ * and for engine front ends that show search progress.
+ * <p>
+ * Called on the searching thread between iterations, so it should return
+ * quickly; the search waits for it.
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * @param statistics the counters of the iteration just finished
+     */
+    void iterationFinished(SearchStatistics statistics);
+}
@@ -0,0 +1,68 @@
+package chess.engine;
+
+import java.util.List;
+
+import chess.ChessMove;
+
+/**
+ * The outcome of a search: the move to play, how good it is and the line the
+ * engine expects to follow.
+ */
+public class SearchResult {
+
+    private final ChessMove bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final List<ChessMove> principalVariation;
+
+    public SearchResult(ChessMove bestMove, int score, int depth, long nodes, List<ChessMove> principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.principalVariation = List.copyOf(principalVariation);
+    }
+
+// Public Methods
+    /**
+     * @return the move to play, or null if the side to move has no legal move
+     */
+    public ChessMove getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return the score in centipawns from the side to move's point of view,
+     * see {@link Engine#isMateScore(int)}
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the depth of the last completed iteration
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of positions visited
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the expected line of play, starting with the best move
+     */
+    public List<ChessMove> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult [bestMove=" + bestMove + ", score=" + score + ", depth=" + depth + ", nodes=" + nodes + "]";
+    }
+}
@@ -0,0 +1,190 @@
+package chess.engine;
+
+import java.util.List;
+
+import chess.ChessMove;
+
+/**
+ * What one iteration of a search did: how many positions it visited, how well
+ * the transposition table and move ordering served it, and how often null-move
+ * pruning paid off. Counts cover the one iteration, not the search so far.
+ */
+public class SearchStatistics {
+
+    private final int depth;
+    private final int score;
+    private final List<ChessMove> principalVariation;
+    private final long nodes;
+    private final long searchNodes;
+    private final long quiescenceNodes;
+    private final long tableProbes;
+    private final long tableHits;
+    private final long betaCutoffs;
+    private final long firstMoveCutoffs;
+    private final long nullMoveTries;
+    private final long nullMoveCutoffs;
+    private final long previousNodes;
+    private final long nanos;
+
+    public SearchStatistics(int depth, int score, List<ChessMove> principalVariation, long nodes, long searchNodes,
+                            long quiescenceNodes, long tableProbes, long tableHits, long betaCutoffs,
+                            long firstMoveCutoffs, long nullMoveTries, long nullMoveCutoffs, long previousNodes,
+                            long nanos) {
+        this.depth = depth;
+        this.score = score;
+        this.principalVariation = List.copyOf(principalVariation);
+        this.nodes = nodes;
+        this.searchNodes = searchNodes;
+        this.quiescenceNodes = quiescenceNodes;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.betaCutoffs = betaCutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.nullMoveTries = nullMoveTries;
+        this.nullMoveCutoffs = nullMoveCutoffs;
+        this.previousNodes = previousNodes;
+        this.nanos = nanos;
+    }
+
+// Public Methods
+    /**
+     * @return the depth of the iteration
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the iteration's score, see {@link Engine#isMateScore(int)}
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the iteration's best move
+     */
+    public ChessMove getBestMove() {
+        return principalVariation.isEmpty() ? null : principalVariation.get(0);
+    }
+
+    /**
+     * @return the line the iteration expects, starting with the best move
+     */
+    public List<ChessMove> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    /**
+     * @return the positions visited, quiescence positions included
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the positions visited so far in the whole search, by every
+     * search thread, this iteration included
+     */
+    public long getSearchNodes() {
+        return searchNodes;
+    }
+
+    /**
+     * @return the positions visited by the quiescence search
+     */
+    public long getQuiescenceNodes() {
+        return quiescenceNodes;
+    }
+
+    /**
+     * @return the transposition table lookups made
+     */
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    /**
+     * @return the lookups that found the position
+     */
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * @return the nodes where a move scored at least beta
+     */
+    public long getBetaCutoffs() {
+        return betaCutoffs;
+    }
+
+    /**
+     * @return the beta cutoffs caused by the first move searched
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * @return the null moves searched
+     */
+    public long getNullMoveTries() {
+        return nullMoveTries;
+    }
+
+    /**
+     * @return the null moves that scored at least beta and pruned the node
+     */
+    public long getNullMoveCutoffs() {
+        return nullMoveCutoffs;
+    }
+
+    /**
+     * @return the time the iteration took in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the share of table lookups that hit, from 0 to 1
+     */
+    public double getTableHitRate() {
+        return ratio(tableHits, tableProbes);
+    }
+
+    /**
+     * @return the share of beta cutoffs made by the first move, from 0 to 1;
+     * the closer to 1, the better the move ordering
+     */
+    public double getFirstMoveCutoffRate() {
+        return ratio(firstMoveCutoffs, betaCutoffs);
+    }
+
+    /**
+     * @return the share of null moves that pruned, from 0 to 1
+     */
+    public double getNullMoveSuccessRate() {
+        return ratio(nullMoveCutoffs, nullMoveTries);
+    }
+
+    /**
+     * @return this iteration's nodes over the previous iteration's, or 0 for
+     * the first iteration
+     */
+    public double getEffectiveBranchingFactor() {
+        return ratio(nodes, previousNodes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d nodes %d qnodes %d tt %.3f first-cut %.3f null %.3f ebf %.2f",
+                depth, nodes, quiescenceNodes, getTableHitRate(), getFirstMoveCutoffRate(),
+                getNullMoveSuccessRate(), getEffectiveBranchingFactor());
+    }
+
+//Private methods
+    private static double ratio(long part, long whole) {
+        return (whole == 0) ? 0 : (double) part / whole;
+    }
+}
@@ -0,0 +1,573 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Zobrist;
+import chess.movecalculators.LegalMoveGenerator;
+import chess.movecalculators.Move;
+import chess.movecalculators.MoveList;
+import chess.tablebase.Tablebase;
+import chess.tablebase.Tablebases;
+
+/**
+ * One search thread: an iterative-deepening principal variation search with
+ * null-move pruning and a captures-only quiescence search.
+ * <p>
+ * A searcher works on its own copy of the board and owns every buffer it
+ * needs, so searching allocates nothing once it is built. Results are shared
+ * with other searchers through the transposition table.
+ * <p>
+ * Counters of what the search does are kept as plain fields, and only turned
+ * into {@link SearchStatistics} between iterations when a listener is set or
+ * a Flight Recorder recording wants a {@link SearchIterationEvent}.
+ */
+final class Searcher {
+
+    static final int MAX_PLY = 128;
+    static final int INFINITY = 32767;
+    static final int MATE = 32000;
+    /**
+     * Scores at least this far from zero are mates, whether found by the
+     * search or promised by a tablebase probed at any ply
+     */
+    static final int MATE_BOUND = MATE - MAX_PLY - Tablebase.MAX_PLIES;
+
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int CHECK_INTERVAL = 1023;
+
+    // move ordering bands; history scores stay below the killers
+    private static final int HASH_MOVE_SCORE = 2_000_000;
+    private static final int CAPTURE_SCORE = 1_000_000;
+    private static final int PROMOTION_SCORE = 900_000;
+    private static final int KILLER_SCORE = 800_000;
+    private static final int HISTORY_LIMIT = 700_000;
+
+    /** Least valuable attacker rank, by {@link ChessPiece.PieceType} ordinal */
+    private static final int[] ATTACKER_RANK = {6, 5, 3, 2, 4, 1};
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor rootTeam;
+    private final AtomicBoolean stop;
+    private final TranspositionTable table;
+    private final Tablebases tablebases;
+    /** Positions visited by every thread of the search; each adds its own count every so often */
+    private final LongAdder searchNodes;
+
+    private final LegalMoveGenerator generator = new LegalMoveGenerator();
+    private final Evaluation evaluation = new Evaluation();
+    private final MoveList[] moves = new MoveList[MAX_PLY];
+    private final int[][] scores = new int[MAX_PLY][MoveList.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[2][64 * 64];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[] tablebaseSquares;
+    private final int[] tablebaseTransformed;
+
+    private SearchListener listener;
+
+    private long nodes;
+    private long addedNodes;
+    private long quiescenceNodes;
+    private long tableProbes;
+    private long tableHits;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long nullMoveTries;
+    private long nullMoveCutoffs;
+    private long deadline;
+    private long maxNodes;
+    private boolean aborted;
+
+    Searcher(ChessBoard board, ChessGame.TeamColor rootTeam, AtomicBoolean stop, TranspositionTable table,
+             Tablebases tablebases, LongAdder searchNodes) {
+        this.board = board;
+        this.rootTeam = rootTeam;
+        this.stop = stop;
+        this.table = table;
+        this.tablebases = tablebases;
+        this.searchNodes = searchNodes;
+        this.tablebaseSquares = new int[(tablebases == null) ? 0 : tablebases.getMaxPieces()];
+        this.tablebaseTransformed = new int[tablebaseSquares.length];
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moves[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches one depth deeper at a time until a limit is reached or the
+     * search is stopped, keeping the result of the last finished depth.
+     *
+     * @param limits     when to stop
+     * @param firstDepth the depth of the first iteration, which helper threads
+     *                   vary so they do not all search the same tree in step
+     * @return the best move found
+     */
+    SearchResult search(SearchLimits limits, int firstDepth) {
+        long start = System.nanoTime();
+        deadline = (limits.getMoveTimeMillis() > 0) ? start + limits.getMoveTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        maxNodes = (limits.getNodes() > 0) ? limits.getNodes() : Long.MAX_VALUE;
+        int maxDepth = (limits.getDepth() > 0) ? Math.min(limits.getDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+        nodes = 0;
+        addedNodes = 0;
+        quiescenceNodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        betaCutoffs = 0;
+        firstMoveCutoffs = 0;
+        nullMoveTries = 0;
+        nullMoveCutoffs = 0;
+        aborted = false;
+
+        MoveList rootMoves = moves[0];
+        rootMoves.clear();
+        generator.analyze(board, rootTeam);
+        generator.generate(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = generator.isInCheck() ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, List.of());
+        }
+
+        SearchResult result = new SearchResult(Move.toChessMove(rootMoves.get(0)), 0, 0, 0, List.of());
+        long previousNodes = 0;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            long iterationStart = System.nanoTime();
+            long[] before = (listener != null || event.isEnabled()) ? counters() : null;
+            int score = search(depth, 0, -INFINITY, INFINITY, rootTeam, true);
+            if (aborted) {
+                break;
+            }
+            result = new SearchResult(Move.toChessMove(pv[0][0]), score, depth, nodes, principalVariation());
+            if (before != null) {
+                previousNodes = report(event, before, previousNodes, result, System.nanoTime() - iterationStart);
+            }
+            if (Math.abs(score) >= MATE_BOUND && depth > MATE - Math.abs(score)) {
+                break;
+            }
+        }
+        addNodes();
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                result.getPrincipalVariation());
+    }
+
+    /**
+     * @param listener told the statistics of each finished iteration, or null
+     */
+    void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+//Private methods
+    /**
+     * Principal variation search of one node.
+     *
+     * @param depth     plies left before quiescence search
+     * @param ply       plies from the root
+     * @param alpha     lower bound of the window
+     * @param beta      upper bound of the window
+     * @param teamColor the side to move
+     * @param allowNull whether a null move may be tried here
+     * @return the score from the side to move's point of view
+     */
+    private int search(int depth, int ply, int alpha, int beta, ChessGame.TeamColor teamColor, boolean allowNull) {
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluation.evaluate(board, teamColor);
+        }
+        if (ply > 0 && (board.getHalfmoveClock() >= 100 || board.getRepetitions() > 0)) {
+            return 0;
+        }
+        if (ply > 0 && tablebases != null && Long.bitCount(board.getOccupied()) <= tablebases.getMaxPieces()) {
+            int value = tablebases.probe(board, teamColor, tablebaseSquares, tablebaseTransformed);
+            if (value != Tablebases.NOT_FOUND) {
+                return tablebaseScore(value, ply);
+            }
+        }
+
+        generator.analyze(board, teamColor);
+        boolean inCheck = generator.isInCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(ply, alpha, beta, teamColor);
+        }
+        nodes++;
+
+        boolean pvNode = beta - alpha > 1;
+        long key = key(teamColor);
+        long entry = table.probe(key);
+        tableProbes++;
+        if (entry != 0) {
+            tableHits++;
+        }
+        int hashMove = TranspositionTable.move(entry);
+        if (entry != 0 && ply > 0 && !pvNode && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        if (allowNull && !pvNode && !inCheck && depth >= 3 && hasPieces(teamColor)
+                && evaluation.evaluate(board, teamColor) >= beta) {
+            nullMoveTries++;
+            board.makeNullMove();
+            int score = -search(depth - 1 - NULL_MOVE_REDUCTION, ply + 1, -beta, -beta + 1, teamColor.opp(), false);
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score >= beta) {
+                nullMoveCutoffs++;
+                return beta;
+            }
+            generator.analyze(board, teamColor);
+        }
+
+        MoveList list = moves[ply];
+        list.clear();
+        generator.generate(list);
+        if (list.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(list, ply, teamColor, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < list.size(); i++) {
+            int move = pickMove(list, ply, i);
+            board.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -search(depth - 1, ply + 1, -beta, -alpha, teamColor.opp(), true);
+            } else {
+                score = -search(depth - 1, ply + 1, -alpha - 1, -alpha, teamColor.opp(), true);
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, ply + 1, -beta, -alpha, teamColor.opp(), true);
+                }
+            }
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        betaCutoffs++;
+                        if (i == 0) {
+                            firstMoveCutoffs++;
+                        }
+                        if (isQuiet(move)) {
+                            rememberCutoff(move, ply, depth, teamColor);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = (best >= beta) ? TranspositionTable.LOWER
+                : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, (bound == TranspositionTable.UPPER) ? Move.NONE : bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches captures and promotions until the position is quiet, so the
+     * static evaluation is never taken in the middle of an exchange. All
+     * evasions are searched when in check.
+     */
+    private int quiesce(int ply, int alpha, int beta, ChessGame.TeamColor teamColor) {
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+        quiescenceNodes++;
+        if (ply >= MAX_PLY - 1) {
+            return evaluation.evaluate(board, teamColor);
+        }
+
+        generator.analyze(board, teamColor);
+        boolean inCheck = generator.isInCheck();
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluation.evaluate(board, teamColor);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList list = moves[ply];
+        list.clear();
+        generator.generate(list);
+        if (list.isEmpty()) {
+            return inCheck ? -MATE + ply : best;
+        }
+        if (!inCheck) {
+            int kept = 0;
+            for (int i = 0; i < list.size(); i++) {
+                if (!isQuiet(list.get(i))) {
+                    list.set(kept++, list.get(i));
+                }
+            }
+            list.truncate(kept);
+        }
+        scoreMoves(list, ply, teamColor, Move.NONE);
+
+        for (int i = 0; i < list.size(); i++) {
+            int move = pickMove(list, ply, i);
+            board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha, teamColor.opp());
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the counters, in the order {@link #report} reads them
+     */
+    private long[] counters() {
+        return new long[] {nodes, quiescenceNodes, tableProbes, tableHits, betaCutoffs, firstMoveCutoffs,
+                nullMoveTries, nullMoveCutoffs};
+    }
+
+    /**
+     * Publishes what the last iteration did to the listener and to Flight
+     * Recorder
+     *
+     * @return the iteration's node count
+     */
+    private long report(SearchIterationEvent event, long[] before, long previousNodes, SearchResult result,
+                        long nanos) {
+        addNodes();
+        long[] after = counters();
+        long[] delta = new long[after.length];
+        for (int i = 0; i < after.length; i++) {
+            delta[i] = after[i] - before[i];
+        }
+        SearchStatistics statistics = new SearchStatistics(result.getDepth(), result.getScore(),
+                result.getPrincipalVariation(), delta[0], searchNodes.sum(), delta[1], delta[2], delta[3], delta[4], delta[5], delta[6],
+                delta[7], previousNodes, nanos);
+        if (event.shouldCommit()) {
+            event.depth = statistics.getDepth();
+            event.score = statistics.getScore();
+            event.nodes = statistics.getNodes();
+            event.quiescenceNodes = statistics.getQuiescenceNodes();
+            event.tableProbes = statistics.getTableProbes();
+            event.tableHits = statistics.getTableHits();
+            event.betaCutoffs = statistics.getBetaCutoffs();
+            event.firstMoveCutoffs = statistics.getFirstMoveCutoffs();
+            event.nullMoveTries = statistics.getNullMoveTries();
+            event.nullMoveCutoffs = statistics.getNullMoveCutoffs();
+            event.effectiveBranchingFactor = statistics.getEffectiveBranchingFactor();
+            event.commit();
+        }
+        if (listener != null) {
+            listener.iterationFinished(statistics);
+        }
+        return statistics.getNodes();
+    }
+
+    /**
+     * Adds the positions visited since the last call to the count shared by
+     * every thread of the search
+     */
+    private void addNodes() {
+        searchNodes.add(nodes - addedNodes);
+        addedNodes = nodes;
+    }
+
+    /**
+     * Checks the stop flag and the time and node limits every so often.
+     *
+     * @return True if the search must unwind
+     */
+    private boolean shouldStop() {
+        if (aborted) {
+            return true;
+        }
+        if ((nodes & CHECK_INTERVAL) == 0 && nodes > 0) {
+            addNodes();
+            aborted = stop.get() || nodes >= maxNodes || System.nanoTime() >= deadline;
+        }
+        return aborted;
+    }
+
+    /**
+     * Gives each move an ordering score: captures by most valuable victim then
+     * least valuable attacker, then promotions, killers and history. The move
+     * from the transposition table goes first.
+     */
+    private void scoreMoves(MoveList list, int ply, ChessGame.TeamColor teamColor, int hashMove) {
+        int[] moveScores = scores[ply];
+        int[] teamHistory = history[teamColor.ordinal()];
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            ChessPiece victim = board.getPiece(Move.to(move));
+            if (move == hashMove) {
+                moveScores[i] = HASH_MOVE_SCORE;
+            } else if (victim != null) {
+                ChessPiece attacker = board.getPiece(Move.from(move));
+                moveScores[i] = CAPTURE_SCORE + Evaluation.VALUES[victim.getPieceType().ordinal()] * 8
+                        - ATTACKER_RANK[attacker.getPieceType().ordinal()];
+            } else if (Move.kind(move) == Move.EN_PASSANT) {
+                int pawn = ChessPiece.PieceType.PAWN.ordinal();
+                moveScores[i] = CAPTURE_SCORE + Evaluation.VALUES[pawn] * 8 - ATTACKER_RANK[pawn];
+            } else if (Move.kind(move) == Move.PROMOTION) {
+                moveScores[i] = PROMOTION_SCORE + Evaluation.VALUES[Move.promotion(move).ordinal()];
+            } else if (move == killers[ply][0]) {
+                moveScores[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                moveScores[i] = KILLER_SCORE;
+            } else {
+                moveScores[i] = teamHistory[move & 4095];
+            }
+        }
+    }
+
+    /**
+     * Swaps the best scored of the remaining moves into place, so moves are
+     * only sorted as far as the search gets before a cutoff.
+     *
+     * @return the move now at the index
+     */
+    private int pickMove(MoveList list, int ply, int index) {
+        int[] moveScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < list.size(); i++) {
+            if (moveScores[i] > moveScores[best]) {
+                best = i;
+            }
+        }
+        int move = list.get(best);
+        if (best != index) {
+            list.set(best, list.get(index));
+            list.set(index, move);
+            int score = moveScores[best];
+            moveScores[best] = moveScores[index];
+            moveScores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff as a killer for its ply
+     * and in the history table.
+     */
+    private void rememberCutoff(int move, int ply, int depth, ChessGame.TeamColor teamColor) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] teamHistory = history[teamColor.ordinal()];
+        teamHistory[move & 4095] += depth * depth;
+        if (teamHistory[move & 4095] > HISTORY_LIMIT) {
+            for (int i = 0; i < teamHistory.length; i++) {
+                teamHistory[i] /= 2;
+            }
+        }
+    }
+
+    private long key(ChessGame.TeamColor teamColor) {
+        long key = board.getZobristKey();
+        return (teamColor == ChessGame.TeamColor.BLACK) ? key ^ Zobrist.SIDE_KEY : key;
+    }
+
+    /**
+     * Mate scores are stored as the distance to mate from the stored position
+     * rather than from the root, so they stay right when found again at
+     * another ply.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        return (score <= -MATE_BOUND) ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        return (score <= -MATE_BOUND) ? score + ply : score;
+    }
+
+    /**
+     * Scores a tablebase value as a mate found {@code ply} plies from the
+     * root, so that the quickest win and the slowest loss are preferred.
+     */
+    static int tablebaseScore(int value, int ply) {
+        int score = MATE - ply - Tablebase.pliesToMate(value);
+        return switch (Tablebase.wdl(value)) {
+            case 1 -> score;
+            case -1 -> -score;
+            default -> 0;
+        };
+    }
+
+    private boolean isQuiet(int move) {
+        return board.getPiece(Move.to(move)) == null && Move.kind(move) != Move.PROMOTION
+                && Move.kind(move) != Move.EN_PASSANT;
+    }
+
+    /**
+     * @return True if the team has a piece other than pawns and its king, which
+     * makes a null move unlikely to hide a zugzwang
+     */
+    private boolean hasPieces(ChessGame.TeamColor teamColor) {
+        return (board.getTeamPieces(teamColor)
+                & ~board.getPieces(teamColor, ChessPiece.PieceType.PAWN)
+                & ~board.getPieces(teamColor, ChessPiece.PieceType.KING)) != 0;
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pv[ply][ply] = move;
+        for (int i = ply + 1; i < pvLength[ply + 1]; i++) {
+            pv[ply][i] = pv[ply + 1][i];
+        }
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    private List<chess.ChessMove> principalVariation() {
+        List<chess.ChessMove> line = new ArrayList<>(pvLength[0]);
+        for (int i = 0; i < pvLength[0]; i++) {
+            line.add(Move.toChessMove(pv[0][i]));
+        }
+        return line;
+    }
+}
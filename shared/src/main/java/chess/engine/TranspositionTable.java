@@ -0,0 +1,166 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of search results shared by every search thread.
+ * <p>
+ * Each entry is two longs: the position's 64-bit Zobrist key and a data word
+ * packing the best move, score, depth, bound and the search it was stored in.
+ * The key is stored XORed with the data, so a probe only trusts an entry if
+ * {@code storedKey ^ data} gives back the key it asked for. Threads read and
+ * write the arrays without locking; an entry torn by two threads writing at
+ * once fails that check and is treated as a miss.
+ * <p>
+ * Data word layout, from the low bits: move (16), score (16, signed),
+ * depth (8), bound (2), generation (8).
+ */
+public class TranspositionTable {
+
+    /** Bound stored with no score, only a move */
+    public static final int NONE = 0;
+    /** The score is at most the stored value */
+    public static final int UPPER = 1;
+    /** The score is at least the stored value */
+    public static final int LOWER = 2;
+    /** The score is exact */
+    public static final int EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * @param megabytes the most memory the table may use, at least 1
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("table size must be at least 1 MB");
+        }
+        long entries = Long.highestOneBit(megabytes * (1L << 20) / ENTRY_BYTES);
+        int size = (int) Math.min(entries, 1 << 30);
+        this.keys = new long[size];
+        this.data = new long[size];
+        this.mask = size - 1;
+    }
+
+// Public Methods
+    /**
+     * Looks up a position
+     *
+     * @param key the position's Zobrist key, including the side to move
+     * @return the entry's data word, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == key ? entry : 0L;
+    }
+
+    /**
+     * Stores a search result, replacing the entry in its slot if that entry is
+     * from an earlier search, is for another position and no deeper, or is
+     * shallower than this result.
+     *
+     * @param key   the position's Zobrist key, including the side to move
+     * @param move  the best move found, or {@code Move.NONE}
+     * @param score the score, with mate scores relative to this position
+     * @param depth the depth searched
+     * @param bound {@link #UPPER}, {@link #LOWER} or {@link #EXACT}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = (int) key & mask;
+        long old = data[index];
+        boolean samePosition = (keys[index] ^ old) == key;
+        if (old != 0 && generation(old) == generation && depth < depth(old)
+                && !(samePosition && bound == EXACT)) {
+            return;
+        }
+        if (samePosition && move == 0) {
+            move = move(old);
+        }
+        long entry = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) (Math.max(depth, 0) & 0xFF) << 32
+                | (long) bound << 40
+                | (long) generation << 42;
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        generation = 0;
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of its first entries
+     *
+     * @return entries from the current search per thousand
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, keys.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0 && generation(data[i]) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * @return the best move of a data word
+     */
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    /**
+     * @return the score of a data word
+     */
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    /**
+     * @return the depth of a data word
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    /**
+     * @return the bound of a data word
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 3;
+    }
+
+//Private methods
+    private static int generation(long entry) {
+        return (int) (entry >>> 42) & 0xFF;
+    }
+}
@@ -0,0 +1,174 @@
+package chess.movecalculators;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Generates only legal moves, without making any of them on the board.
+ * <p>
+ * {@link #analyze} looks at a position once to find the pieces giving check
+ * and the pieces pinned to their king, and turns them into masks: a check
+ * mask of the squares that block or capture a single checker, and for each
+ * pinned piece the ray it may slide along. A non-king move is then legal if
+ * its end square is in both masks. King moves are checked by asking whether
+ * the end square is attacked with the king lifted off the board. Castling
+ * and en passant, which move two pieces, get checks of their own.
+ * <p>
+ * Instances hold the analysis of one position and are reused between
+ * positions; they are not thread safe.
+ */
+public final class LegalMoveGenerator {
+
+    private final long[] pinRays = new long[64];
+
+    private ChessBoard board;
+    private ChessGame.TeamColor teamColor;
+    private int kingSquare;
+    private long checkers;
+    private long checkMask;
+    private long pinned;
+
+// Public Methods
+    /**
+     * Finds the checkers and pinned pieces of a team. Must be called again
+     * whenever the board changes.
+     *
+     * @param board     the board to analyze
+     * @param teamColor the team whose moves will be generated
+     */
+    public void analyze(ChessBoard board, ChessGame.TeamColor teamColor) {
+        this.board = board;
+        this.teamColor = teamColor;
+        this.kingSquare = board.getKingSquare(teamColor);
+        this.checkers = 0L;
+        this.checkMask = -1L;
+        this.pinned = 0L;
+        if (kingSquare < 0) {
+            return;
+        }
+
+        ChessGame.TeamColor enemy = teamColor.opp();
+        checkers = board.getAttackers(kingSquare, enemy);
+        if (Long.bitCount(checkers) == 1) {
+            int checker = Bitboards.first(checkers);
+            checkMask = Bitboards.between(kingSquare, checker) | checkers;
+        } else if (checkers != 0) {
+            checkMask = 0L;
+        }
+
+        long queens = board.getPieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (MagicBitboards.rookAttacks(kingSquare, 0L)
+                    & (board.getPieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (MagicBitboards.bishopAttacks(kingSquare, 0L)
+                    & (board.getPieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long occupied = board.getOccupied();
+        long own = board.getTeamPieces(teamColor);
+        for (long bits = snipers; bits != 0; bits &= bits - 1) {
+            int sniper = Bitboards.first(bits);
+            long between = Bitboards.between(kingSquare, sniper);
+            long blockers = between & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+                pinRays[Bitboards.first(blockers)] = between | Bitboards.mask(sniper);
+            }
+        }
+    }
+
+    /**
+     * @return True if the analyzed team is in check
+     */
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * Adds every legal move of the analyzed team
+     *
+     * @param moves the list to add to
+     */
+    public void generate(MoveList moves) {
+        long pieces = board.getTeamPieces(teamColor);
+        if (Long.bitCount(checkers) > 1) {
+            pieces = board.getPieces(teamColor, ChessPiece.PieceType.KING);
+        }
+        for (long bits = pieces; bits != 0; bits &= bits - 1) {
+            generate(Bitboards.first(bits), moves);
+        }
+    }
+
+    /**
+     * Adds every legal move of the analyzed team's piece on a square
+     *
+     * @param square the square of the piece to move
+     * @param moves  the list to add to
+     */
+    public void generate(int square, MoveList moves) {
+        int start = moves.size();
+        MoveGenerator.generate(board, square, moves);
+        int kept = start;
+        for (int i = start; i < moves.size(); i++) {
+            if (isLegal(moves.get(i))) {
+                moves.set(kept++, moves.get(i));
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Determines if a pseudo-legal move of the analyzed team leaves its king safe
+     *
+     * @param move the encoded move, which must be one the piece can make
+     * @return True if the move is legal
+     */
+    public boolean isLegal(int move) {
+        int from = Move.from(move);
+        long to = Bitboards.mask(Move.to(move));
+        if (Move.kind(move) == Move.CASTLING) {
+            int step = (Move.to(move) > from) ? 1 : -1;
+            ChessGame.TeamColor enemy = teamColor.opp();
+            return checkers == 0
+                    && !board.isSquareAttacked(from + step, enemy)
+                    && !board.isSquareAttacked(from + 2 * step, enemy);
+        }
+        if (Move.kind(move) == Move.EN_PASSANT) {
+            return isLegalEnPassant(from, Move.to(move));
+        }
+        if (from == kingSquare) {
+            long occupied = board.getOccupied() & ~Bitboards.mask(kingSquare);
+            return !board.isSquareAttacked(Move.to(move), teamColor.opp(), occupied);
+        }
+        if ((to & checkMask) == 0) {
+            return false;
+        }
+        return (pinned & Bitboards.mask(from)) == 0 || (to & pinRays[from]) != 0;
+    }
+
+//Private methods
+    /**
+     * An en passant capture removes a pawn from a square the masks know
+     * nothing about, which can open a line to the king, so it is checked
+     * against the board as it will be after the capture.
+     */
+    private boolean isLegalEnPassant(int from, int to) {
+        if (kingSquare < 0) {
+            return true;
+        }
+        long captured = Bitboards.mask((from & ~7) | (to & 7));
+        long occupied = (board.getOccupied() & ~Bitboards.mask(from) & ~captured) | Bitboards.mask(to);
+        ChessGame.TeamColor enemy = teamColor.opp();
+        // any checker other than the captured pawn or a slider the pawn now blocks still gives check
+        long sliders = board.getPieces(enemy, ChessPiece.PieceType.ROOK)
+                | board.getPieces(enemy, ChessPiece.PieceType.BISHOP)
+                | board.getPieces(enemy, ChessPiece.PieceType.QUEEN);
+        if ((checkers & ~captured & ~sliders) != 0) {
+            return false;
+        }
+        long queens = board.getPieces(enemy, ChessPiece.PieceType.QUEEN);
+        return (MagicBitboards.rookAttacks(kingSquare, occupied)
+                    & (board.getPieces(enemy, ChessPiece.PieceType.ROOK) | queens)) == 0
+                && (MagicBitboards.bishopAttacks(kingSquare, occupied)
+                    & (board.getPieces(enemy, ChessPiece.PieceType.BISHOP) | queens)) == 0;
+    }
+}
@@ -0,0 +1,197 @@
+package chess.movecalculators;
+
+/**
+ * Precomputed attack tables for sliding pieces.
+ * <p>
+ * For each square the occupancy of the squares that can block a rook or
+ * bishop is multiplied by a "magic" number, and the top bits of the product
+ * index a table holding the attacks for that occupancy. Looking up the
+ * attacks of a slider is then one mask, one multiply, one shift and one
+ * array read. The magic numbers are found once, when the class loads, from
+ * a fixed seed so the tables are the same on every run.
+ */
+public final class MagicBitboards {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1,0}, {-1,0}, {0,1}, {0,-1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    private static long seed = 0x9E3779B97F4A7C15L;
+
+    static {
+        ROOK_TABLE = initialize(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = initialize(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+    }
+
+    private MagicBitboards() { }
+
+// Public Methods
+    /**
+     * @param square   the square the rook is on
+     * @param occupied mask of every occupied square
+     * @return mask of the squares a rook attacks, including the first blocker
+     * in each direction
+     */
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * @param square   the square the bishop is on
+     * @param occupied mask of every occupied square
+     * @return mask of the squares a bishop attacks, including the first blocker
+     * in each direction
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+    }
+
+    /**
+     * @param square   the square the queen is on
+     * @param occupied mask of every occupied square
+     * @return mask of the squares a queen attacks
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Computes slider attacks by walking each direction square by square.
+     * This is what the tables are built from, and is slow.
+     *
+     * @param square     the square the slider is on
+     * @param occupied   mask of every occupied square
+     * @param directions row/column steps the slider moves in
+     * @return mask of the squares attacked
+     */
+    static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = square >>> 3;
+            int col = square & 7;
+            while (true) {
+                row += direction[0];
+                col += direction[1];
+
+                if (row < 0 || row > 7 || col < 0 || col > 7) { break; }
+
+                long mask = 1L << (row * 8 + col);
+                attacks |= mask;
+                if ((occupied & mask) != 0) { break; }
+            }
+        }
+        return attacks;
+    }
+
+    static long rookAttacksSlow(int square, long occupied) {
+        return slidingAttacks(square, occupied, ROOK_DIRECTIONS);
+    }
+
+    static long bishopAttacksSlow(int square, long occupied) {
+        return slidingAttacks(square, occupied, BISHOP_DIRECTIONS);
+    }
+
+//Private methods
+    /**
+     * Finds a magic number for every square and fills the attack table.
+     *
+     * @return the attack table shared by every square
+     */
+    private static long[] initialize(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = blockerMask(square, directions);
+            shifts[square] = 64 - Long.bitCount(masks[square]);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            magics[square] = findMagic(square, directions, masks[square], shifts[square], table, offsets[square]);
+        }
+        return table;
+    }
+
+    /**
+     * @return mask of the squares whose occupancy can change a slider's
+     * attacks, which excludes the last square of every ray
+     */
+    private static long blockerMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int row = (square >>> 3) + direction[0];
+            int col = (square & 7) + direction[1];
+            while (row + direction[0] >= 0 && row + direction[0] <= 7
+                    && col + direction[1] >= 0 && col + direction[1] <= 7) {
+                mask |= 1L << (row * 8 + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Tries random sparse numbers until one maps every blocker occupancy of
+     * the square to a table slot without two different attack sets colliding,
+     * and writes the attacks into the table.
+     *
+     * @return the magic number found
+     */
+    private static long findMagic(int square, int[][] directions, long mask, int shift, long[] table, int offset) {
+        int count = 1 << Long.bitCount(mask);
+        long[] occupancies = new long[count];
+        long[] attacks = new long[count];
+        int[] epochs = new int[count];
+
+        long subset = 0L;
+        for (int i = 0; i < count; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        for (int epoch = 1; ; epoch++) {
+            long magic = nextRandom() & nextRandom() & nextRandom();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) { continue; }
+
+            boolean collision = false;
+            for (int i = 0; i < count && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> shift);
+                if (epochs[index] != epoch) {
+                    epochs[index] = epoch;
+                    table[offset + index] = attacks[i];
+                } else if (table[offset + index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                return magic;
+            }
+        }
+    }
+
+    /**
+     * @return the next value of a fixed-seed xorshift generator
+     */
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
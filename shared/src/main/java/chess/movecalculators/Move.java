@@ -0,0 +1,134 @@
+package chess.movecalculators;
+
+import chess.Bitboards;
+import chess.ChessMove;
+import chess.ChessPiece;
+
+/**
+ * Encodes a move as a 16-bit int so move lists and search loops can work
+ * without allocating {@link ChessMove} objects.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square, bits 12-13 the
+ * promotion piece and bits 14-15 the kind of move.
+ */
+public final class Move {
+
+    /** No move; never produced by the generator */
+    public static final int NONE = 0;
+
+    public static final int NORMAL = 0;
+    public static final int PROMOTION = 1 << 14;
+    /** A pawn capturing the pawn that just passed it; the end square is empty */
+    public static final int EN_PASSANT = 2 << 14;
+    /** A king moving two squares towards a rook, which jumps over it */
+    public static final int CASTLING = 3 << 14;
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+        ChessPiece.PieceType.KNIGHT,
+        ChessPiece.PieceType.BISHOP,
+        ChessPiece.PieceType.ROOK,
+        ChessPiece.PieceType.QUEEN
+    };
+
+    private Move() { }
+
+// Public Methods
+    /**
+     * @return an ordinary move between two squares
+     */
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    /**
+     * @param from      the start square
+     * @param to        the end square
+     * @param promotion the piece to promote to, one of knight, bishop, rook or queen
+     * @return a promotion move
+     */
+    public static int promotion(int from, int to, ChessPiece.PieceType promotion) {
+        return from | (to << 6) | (promotionCode(promotion) << 12) | PROMOTION;
+    }
+
+    /**
+     * @return an en passant capture, ending on the square the enemy pawn passed
+     */
+    public static int enPassant(int from, int to) {
+        return from | (to << 6) | EN_PASSANT;
+    }
+
+    /**
+     * @return a castling move, given by the king's start and end squares
+     */
+    public static int castling(int from, int to) {
+        return from | (to << 6) | CASTLING;
+    }
+
+    /**
+     * @return the start square of a move
+     */
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    /**
+     * @return the end square of a move
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the kind of move: {@link #NORMAL}, {@link #PROMOTION},
+     * {@link #EN_PASSANT} or {@link #CASTLING}
+     */
+    public static int kind(int move) {
+        return move & (3 << 14);
+    }
+
+    /**
+     * @return the piece a move promotes to, or null if it is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        return (kind(move) == PROMOTION) ? PROMOTIONS[(move >>> 12) & 3] : null;
+    }
+
+    /**
+     * Encodes a {@link ChessMove} as a normal move or promotion. Castling and
+     * en passant look like normal moves in a {@link ChessMove}; see
+     * {@link chess.ChessBoard#makeMove(ChessMove)} for how they are told apart.
+     *
+     * @param move the move to encode
+     * @return the encoded move
+     * @throws IllegalArgumentException if the move promotes to a king or pawn
+     */
+    public static int of(ChessMove move) {
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        if (move.getPromotionPiece() == null) {
+            return of(from, to);
+        }
+        return promotion(from, to, move.getPromotionPiece());
+    }
+
+    /**
+     * Gets the shared {@link ChessMove} for an encoded move
+     *
+     * @param move the encoded move
+     * @return the move
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+
+//Private methods
+    private static int promotionCode(ChessPiece.PieceType promotion) {
+        return switch (promotion) {
+            case KNIGHT -> 0;
+            case BISHOP -> 1;
+            case ROOK -> 2;
+            case QUEEN -> 3;
+            default -> throw new IllegalArgumentException("can't promote to " + promotion);
+        };
+    }
+}
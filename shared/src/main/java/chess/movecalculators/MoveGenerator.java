@@ -0,0 +1,124 @@
+package chess.movecalculators;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Generates encoded moves (see {@link Move}) into a caller's {@link MoveList}.
+ * This is the allocation-free counterpart of the {@link PieceMoveCalculator}s;
+ * like them it does not check whether a move leaves the king in check.
+ * Unlike them it knows the board's castling rights and en passant square, so
+ * it also generates castling and en passant moves. Castling is only generated
+ * when the squares between king and rook are empty; whether the king passes
+ * through check is left to {@link LegalMoveGenerator}.
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() { }
+
+// Public Methods
+    /**
+     * Adds every move for a team's pieces
+     *
+     * @param board     the board to generate moves on
+     * @param teamColor the team to move
+     * @param moves     the list to add to
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor teamColor, MoveList moves) {
+        for (long bits = board.getTeamPieces(teamColor); bits != 0; bits &= bits - 1) {
+            generate(board, Bitboards.first(bits), moves);
+        }
+    }
+
+    /**
+     * Adds every move for the piece on a square, if any
+     *
+     * @param board  the board to generate moves on
+     * @param square the square of the piece to move
+     * @param moves  the list to add to
+     */
+    public static void generate(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null) {
+            return;
+        }
+        ChessGame.TeamColor color = piece.getTeamColor();
+        long targets = ~board.getTeamPieces(color);
+        long occupied = board.getOccupied();
+        switch (piece.getPieceType()) {
+            case KING -> {
+                addMoves(square, Bitboards.KING_ATTACKS[square] & targets, moves);
+                castlingMoves(board, square, color, moves);
+            }
+            case KNIGHT -> addMoves(square, Bitboards.KNIGHT_ATTACKS[square] & targets, moves);
+            case BISHOP -> addMoves(square, MagicBitboards.bishopAttacks(square, occupied) & targets, moves);
+            case ROOK -> addMoves(square, MagicBitboards.rookAttacks(square, occupied) & targets, moves);
+            case QUEEN -> addMoves(square, MagicBitboards.queenAttacks(square, occupied) & targets, moves);
+            case PAWN -> pawnMoves(board, square, color, moves);
+        }
+    }
+
+//Private methods
+    private static void castlingMoves(ChessBoard board, int from, ChessGame.TeamColor color, MoveList moves) {
+        int home = (color == ChessGame.TeamColor.WHITE) ? 4 : 60;
+        int rights = board.getCastlingRights();
+        if (from != home || rights == 0) {
+            return;
+        }
+        int kingside = (color == ChessGame.TeamColor.WHITE) ? ChessBoard.WHITE_KINGSIDE : ChessBoard.BLACK_KINGSIDE;
+        int queenside = (color == ChessGame.TeamColor.WHITE) ? ChessBoard.WHITE_QUEENSIDE : ChessBoard.BLACK_QUEENSIDE;
+        long occupied = board.getOccupied();
+        if ((rights & kingside) != 0 && (Bitboards.between(from, from + 3) & occupied) == 0) {
+            moves.add(Move.castling(from, from + 2));
+        }
+        if ((rights & queenside) != 0 && (Bitboards.between(from, from - 4) & occupied) == 0) {
+            moves.add(Move.castling(from, from - 2));
+        }
+    }
+
+    private static void addMoves(int from, long targets, MoveList moves) {
+        for (long bits = targets; bits != 0; bits &= bits - 1) {
+            moves.add(Move.of(from, Bitboards.first(bits)));
+        }
+    }
+
+    private static void pawnMoves(ChessBoard board, int from, ChessGame.TeamColor color, MoveList moves) {
+        long empty = ~board.getOccupied();
+        long captures = Bitboards.PAWN_ATTACKS[color.ordinal()][from] & board.getTeamPieces(color.opp());
+        for (long bits = captures; bits != 0; bits &= bits - 1) {
+            addPawnMove(from, Bitboards.first(bits), moves);
+        }
+        int enPassant = board.getEnPassantSquare();
+        long enPassantRow = (color == ChessGame.TeamColor.WHITE) ? Bitboards.RANK_1 << 40 : Bitboards.RANK_1 << 16;
+        if (enPassant >= 0 && (Bitboards.mask(enPassant) & enPassantRow
+                & Bitboards.PAWN_ATTACKS[color.ordinal()][from]) != 0) {
+            moves.add(Move.enPassant(from, enPassant));
+        }
+
+        int direction = (color == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        long startRow = (color == ChessGame.TeamColor.WHITE) ? Bitboards.RANK_2 : Bitboards.RANK_7;
+        int oneStep = from + direction;
+        if (oneStep < 0 || oneStep > 63 || (empty & Bitboards.mask(oneStep)) == 0) {
+            return;
+        }
+        addPawnMove(from, oneStep, moves);
+
+        int twoSteps = oneStep + direction;
+        if ((startRow & Bitboards.mask(from)) != 0 && (empty & Bitboards.mask(twoSteps)) != 0) {
+            moves.add(Move.of(from, twoSteps));
+        }
+    }
+
+    private static void addPawnMove(int from, int to, MoveList moves) {
+        if ((Bitboards.mask(to) & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0) {
+            moves.add(Move.promotion(from, to, ChessPiece.PieceType.QUEEN));
+            moves.add(Move.promotion(from, to, ChessPiece.PieceType.ROOK));
+            moves.add(Move.promotion(from, to, ChessPiece.PieceType.BISHOP));
+            moves.add(Move.promotion(from, to, ChessPiece.PieceType.KNIGHT));
+        } else {
+            moves.add(Move.of(from, to));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package chess.movecalculators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import chess.ChessMove;
+
+/**
+ * A reusable buffer of encoded moves (see {@link Move}). Clearing and refilling
+ * a list allocates nothing.
+ */
+public final class MoveList {
+
+    /** More than the legal moves in any chess position */
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(MAX_MOVES);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+// Public Methods
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Shrinks the list, dropping the moves past the new size.
+     *
+     * @param size the new size, no larger than the current size
+     */
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return the moves as {@link ChessMove}s
+     */
+    public List<ChessMove> toChessMoves() {
+        List<ChessMove> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(Move.toChessMove(moves[i]));
+        }
+        return list;
+    }
+}
@@ -3,6 +3,7 @@ package chess.movecalculators;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import chess.Bitboards;
 import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
@@ -15,94 +16,48 @@ public class PawnMoveCalculator implements PieceMoveCalculator {
         ArrayList<ChessMove> moves = new ArrayList<>();
         ChessPiece myPiece = board.getPiece(myPosition);
         ChessGame.TeamColor pieceColor = myPiece.getTeamColor();
-        
-        int direction = (pieceColor == ChessGame.TeamColor.WHITE) ? 1 : -1;
-        int[][] captures;
-        
-        if (pieceColor == ChessGame.TeamColor.WHITE){
-            captures = new int[][] {
-                {1, -1},
-                {1, 1}
-            };
-        } else {
-            captures = new int[][] {
-                {-1, -1},
-                {-1, 1} 
-            };
-        }
+        int square = Bitboards.square(myPosition);
+        long empty = ~board.getOccupied();
 
         // check for opponent piece to capture
-        for (int[] capture : captures) {
-            int row = myPosition.getRow();
-            int col = myPosition.getColumn();
-            row += capture[0];
-            col += capture[1];
-
-            if (row < 1 || row > 8 || col < 1 || col > 8) {continue;}
-
-            ChessPosition newPosition = new ChessPosition(row, col);
-            ChessPiece pieceAtNewPosition = board.getPiece(newPosition);
-
-            if (pieceAtNewPosition != null) {
-                if (pieceAtNewPosition.getTeamColor() != pieceColor) {
-                    if (pieceColor == ChessGame.TeamColor.WHITE  && row == 8) {
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.QUEEN));
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.ROOK));
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.BISHOP));
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.KNIGHT));
-                    } else if (pieceColor == ChessGame.TeamColor.BLACK  && row == 1) {
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.QUEEN));
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.ROOK));
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.BISHOP));
-                        moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.KNIGHT));
-                    } else {
-                        moves.add(new ChessMove(myPosition, newPosition, null));
-                    }
-                } else {
-                    continue;
-                }
-            }
+        long captures = Bitboards.PAWN_ATTACKS[pieceColor.ordinal()][square]
+                & board.getTeamPieces(pieceColor.opp());
+        for (long bits = captures; bits != 0; bits &= bits - 1) {
+            addMoves(moves, square, Bitboards.first(bits));
         }
 
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-        int startRow = (pieceColor == ChessGame.TeamColor.WHITE) ? 2 : 7;
-        
-        // start double move
-        if (row == startRow) {
-            int newRow = direction * 2;
-            ChessPosition newPosition = new ChessPosition(row + newRow, col);
-            ChessPiece pieceAtNewPosition = board.getPiece(newPosition);
-            ChessPosition intermediatePosition = new ChessPosition(row + direction, col);
-            ChessPiece intermediateChessPiece = board.getPiece(intermediatePosition);
-            if (intermediateChessPiece == null){
-                if (pieceAtNewPosition == null) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                }
-            }
+        // normal move, then start double move
+        int direction = (pieceColor == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        long startRow = (pieceColor == ChessGame.TeamColor.WHITE) ? Bitboards.RANK_2 : Bitboards.RANK_7;
+        int oneStep = square + direction;
+        if (oneStep < 0 || oneStep > 63 || (empty & Bitboards.mask(oneStep)) == 0) {
+            return moves;
         }
+        addMoves(moves, square, oneStep);
 
-        // normal move
-        row += direction;
-        if (row < 1 || row > 8 || col < 1 || col > 8) {return moves;}
-        
-        ChessPosition newPosition = new ChessPosition(row, col);
-        ChessPiece pieceAtNewPosition = board.getPiece(newPosition);
-        if (pieceAtNewPosition == null) {
-            if (pieceColor == ChessGame.TeamColor.WHITE  && row == 8) {
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.QUEEN));
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.ROOK));
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.BISHOP));
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.KNIGHT));
-            } else if (pieceColor == ChessGame.TeamColor.BLACK  && row == 1) {
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.QUEEN));
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.ROOK));
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.BISHOP));
-                moves.add(new ChessMove(myPosition, newPosition, ChessPiece.PieceType.KNIGHT));
-            } else {
-                moves.add(new ChessMove(myPosition, newPosition, null));
-            }
+        int twoSteps = oneStep + direction;
+        if ((startRow & Bitboards.mask(square)) != 0 && (empty & Bitboards.mask(twoSteps)) != 0) {
+            addMoves(moves, square, twoSteps);
         }
         return moves;
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds the move to a square, expanded into every promotion if the square
+     * is on the last row.
+     *
+     * @param moves      the moves to add to
+     * @param from       the pawn's square
+     * @param square     the square the pawn moves to
+     */
+    private void addMoves(Collection<ChessMove> moves, int from, int square) {
+        if ((Bitboards.mask(square) & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0) {
+            moves.add(ChessMove.of(from, square, ChessPiece.PieceType.QUEEN));
+            moves.add(ChessMove.of(from, square, ChessPiece.PieceType.ROOK));
+            moves.add(ChessMove.of(from, square, ChessPiece.PieceType.BISHOP));
+            moves.add(ChessMove.of(from, square, ChessPiece.PieceType.KNIGHT));
+        } else {
+            moves.add(ChessMove.of(from, square, null));
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package chess.movecalculators;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
+import chess.Bitboards;
 import chess.ChessBoard;
 import chess.ChessMove;
 import chess.ChessPosition;
@@ -9,4 +11,20 @@ import chess.ChessPosition;
 public interface PieceMoveCalculator {
 
     Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition);
+
+    /**
+     * Builds a non-promoting move to every square in a mask.
+     *
+     * @param myPosition the position of the moving piece
+     * @param targets    mask of the squares to move to
+     * @return the moves
+     */
+    static Collection<ChessMove> movesTo(ChessPosition myPosition, long targets) {
+        ArrayList<ChessMove> moves = new ArrayList<>(Long.bitCount(targets));
+        int from = Bitboards.square(myPosition);
+        for (long bits = targets; bits != 0; bits &= bits - 1) {
+            moves.add(ChessMove.of(from, Bitboards.first(bits), null));
+        }
+        return moves;
+    }
 }
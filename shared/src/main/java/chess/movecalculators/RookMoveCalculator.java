@@ -1,8 +1,8 @@
 package chess.movecalculators;
 
-import java.util.ArrayList;
 import java.util.Collection;
 
+import chess.Bitboards;
 import chess.ChessBoard;
 import chess.ChessMove;
 import chess.ChessPiece;
@@ -12,41 +12,10 @@ public class RookMoveCalculator implements PieceMoveCalculator {
 
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition){
-        ArrayList<ChessMove> moves = new ArrayList<>();
         ChessPiece myPiece = board.getPiece(myPosition);
 
-        int[][] directions = {
-            {1,0}, 
-            {-1,0}, 
-            {0,1}, 
-            {0,-1}
-        };
-
-         for (int[] direction : directions) {
-            int row = myPosition.getRow();
-            int col = myPosition.getColumn();
-
-            while (true) {
-                row += direction[0];
-                col += direction[1];
-
-                if (row < 1 || row > 8 || col < 1 || col > 8) { break; }
-
-                ChessPosition newPosition = new ChessPosition(row, col);
-                ChessPiece pieceAtNewPosition = board.getPiece(newPosition);
-
-                if (pieceAtNewPosition == null) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                }
-                else if (pieceAtNewPosition.getTeamColor() != myPiece.getTeamColor()) {
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                    break;
-                }
-                else {
-                    break;
-                }
-            }
-        }
-        return moves;
+        long targets = MagicBitboards.rookAttacks(Bitboards.square(myPosition), board.getOccupied())
+                & ~board.getTeamPieces(myPiece.getTeamColor());
+        return PieceMoveCalculator.movesTo(myPosition, targets);
     }
-}
\ No newline at end of file
+}
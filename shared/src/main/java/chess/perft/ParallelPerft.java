@@ -0,0 +1,174 @@
+package chess.perft;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Zobrist;
+import chess.movecalculators.LegalMoveGenerator;
+import chess.movecalculators.MoveList;
+
+/**
+ * Counts the leaf nodes of the legal move tree like {@link Perft}, split over
+ * the threads of a {@link ForkJoinPool}.
+ * <p>
+ * The tree is split into a task for each move of every position at least
+ * {@link #SPLIT_DEPTH} moves from the leaves, each on its own copy of the
+ * board; shallower subtrees are counted by one thread. Subtree counts are kept
+ * in a {@link PerftHashTable} shared by all the tasks, so a position reached
+ * by different move orders, in the same task or another, is only counted once.
+ */
+public class ParallelPerft {
+
+    /** Cache size used when none is given */
+    public static final int DEFAULT_HASH_MEGABYTES = 64;
+    /** Subtrees with fewer moves left than this are not split further */
+    public static final int SPLIT_DEPTH = 4;
+
+    private final ChessGame game;
+    private final PerftHashTable table;
+    private final ForkJoinPool pool;
+
+    /**
+     * Counts with the common pool and a cache of the default size
+     *
+     * @param game the game whose position to count from, which is left unchanged
+     */
+    public ParallelPerft(ChessGame game) {
+        this(game, new PerftHashTable(DEFAULT_HASH_MEGABYTES), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param game  the game whose position to count from, which is left unchanged
+     * @param table the cache of subtree counts, which may be shared between runs
+     * @param pool  the threads to count with
+     */
+    public ParallelPerft(ChessGame game, PerftHashTable table, ForkJoinPool pool) {
+        this.game = game;
+        this.table = table;
+        this.pool = pool;
+    }
+
+// Public Methods
+    /**
+     * Counts the leaf nodes of the move tree
+     *
+     * @param depth how many moves deep to count
+     * @return the number of positions reached at that depth
+     */
+    public long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        return pool.invoke(new CountTask(game.getBoard().clone(), game.getTeamTurn(), depth, table));
+    }
+
+//Private methods
+    private static long key(ChessBoard board, ChessGame.TeamColor teamColor) {
+        long key = board.getZobristKey();
+        return (teamColor == ChessGame.TeamColor.BLACK) ? key ^ Zobrist.SIDE_KEY : key;
+    }
+
+    /**
+     * Counts one subtree, forking a task for each move while the subtree is
+     * deep enough to be worth splitting
+     */
+    private static final class CountTask extends RecursiveTask<Long> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient ChessBoard board;
+        private final ChessGame.TeamColor teamColor;
+        private final int depth;
+        private final transient PerftHashTable table;
+
+        CountTask(ChessBoard board, ChessGame.TeamColor teamColor, int depth, PerftHashTable table) {
+            this.board = board;
+            this.teamColor = teamColor;
+            this.depth = depth;
+            this.table = table;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth < SPLIT_DEPTH) {
+                return new Counter(board, table, depth).count(teamColor, depth);
+            }
+            long key = key(board, teamColor);
+            long cached = table.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+            LegalMoveGenerator generator = new LegalMoveGenerator();
+            MoveList moves = new MoveList();
+            generator.analyze(board, teamColor);
+            generator.generate(moves);
+            CountTask[] tasks = new CountTask[moves.size()];
+            for (int i = 0; i < tasks.length; i++) {
+                board.makeMove(moves.get(i));
+                tasks[i] = new CountTask(board.clone(), teamColor.opp(), depth - 1, table);
+                board.unmakeMove();
+            }
+            invokeAll(tasks);
+            long nodes = 0;
+            for (CountTask task : tasks) {
+                nodes += task.join();
+            }
+            table.store(key, depth, nodes);
+            return nodes;
+        }
+    }
+
+    /**
+     * Counts a shallow subtree on one thread with make and unmake, reusing a
+     * move list for each ply
+     */
+    private static final class Counter {
+
+        private final ChessBoard board;
+        private final PerftHashTable table;
+        private final LegalMoveGenerator generator = new LegalMoveGenerator();
+        private final MoveList[] moves;
+
+        Counter(ChessBoard board, PerftHashTable table, int depth) {
+            this.board = board;
+            this.table = table;
+            this.moves = new MoveList[depth + 1];
+            for (int i = 0; i <= depth; i++) {
+                moves[i] = new MoveList();
+            }
+        }
+
+        long count(ChessGame.TeamColor teamColor, int depth) {
+            if (depth == 0) {
+                return 1;
+            }
+            long key = 0L;
+            if (depth > 1) {
+                key = key(board, teamColor);
+                long cached = table.probe(key, depth);
+                if (cached >= 0) {
+                    return cached;
+                }
+            }
+            MoveList list = moves[depth];
+            list.clear();
+            generator.analyze(board, teamColor);
+            generator.generate(list);
+            if (depth == 1) {
+                return list.size();
+            }
+            long nodes = 0;
+            for (int i = 0; i < list.size(); i++) {
+                board.makeMove(list.get(i));
+                nodes += count(teamColor.opp(), depth - 1);
+                board.unmakeMove();
+            }
+            table.store(key, depth, nodes);
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package chess.perft;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a {@link ChessGame} to a fixed
+ * depth. Comparing the counts against published values checks move generation,
+ * and timing them measures its speed.
+ * <p>
+ * Run as a program to profile: {@code Perft <depth> [fen] [--divide]} counts one
+ * position, and {@code Perft --suite [depth]} checks every {@link ReferencePosition}.
+ * Adding {@code --parallel} counts with a {@link ParallelPerft} on every core
+ * instead, for deep verification runs.
+ */
+public class Perft {
+
+    private final ChessGame game;
+
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+// Public Methods
+    /**
+     * Counts the leaf nodes of the move tree. The game is left as it was found.
+     *
+     * @param depth how many moves deep to count
+     * @return the number of positions reached at that depth
+     */
+    public long count(int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        Collection<ChessMove> moves = game.legalMoves(game.getTeamTurn());
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (ChessMove move : moves) {
+            nodes += countAfter(move, depth - 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below each legal move, which narrows a wrong total
+     * down to the moves responsible.
+     *
+     * @param depth how many moves deep to count, including the first move
+     * @return node counts keyed by first move, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (ChessMove move : game.legalMoves(game.getTeamTurn())) {
+            counts.put(move, countAfter(move, depth - 1));
+        }
+        return counts;
+    }
+
+    /**
+     * Formats a move in coordinate notation, e.g. {@code e7e8q}.
+     *
+     * @param move the move to format
+     * @return the move's start and end squares and promotion letter
+     */
+    public static String notation(ChessMove move) {
+        StringBuilder text = new StringBuilder();
+        for (ChessPosition position : new ChessPosition[] {move.getStartPosition(), move.getEndPosition()}) {
+            text.append((char) ('a' + position.getColumn() - 1)).append(position.getRow());
+        }
+        if (move.getPromotionPiece() != null) {
+            text.append(switch (move.getPromotionPiece()) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                default -> '?';
+            });
+        }
+        return text.toString();
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("usage: Perft <depth> [fen] [--divide] [--parallel] | Perft --suite [depth] [--parallel]");
+            return;
+        }
+        boolean parallel = Arrays.asList(args).contains("--parallel");
+        if (args[0].equals("--suite")) {
+            int maxDepth = (args.length > 1 && !args[1].equals("--parallel")) ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+            runSuite(maxDepth, parallel);
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = false;
+        String fen = ReferencePosition.START.getFen();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--divide")) {
+                divide = true;
+            } else if (!args[i].equals("--parallel")) {
+                fen = args[i];
+            }
+        }
+
+        Perft perft = new Perft(ChessGame.fromFen(fen));
+        long start = System.nanoTime();
+        long nodes = 0;
+        if (parallel && !divide) {
+            nodes = new ParallelPerft(ChessGame.fromFen(fen)).count(depth);
+        } else if (divide) {
+            for (Map.Entry<ChessMove, Long> entry : perft.divide(depth).entrySet()) {
+                System.out.println(notation(entry.getKey()) + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+            System.out.println();
+        } else {
+            nodes = perft.count(depth);
+        }
+        report(nodes, System.nanoTime() - start);
+    }
+
+//Private methods
+    /**
+     * Makes a move, counts the tree below it and takes the move back.
+     *
+     * @param move  the move to make
+     * @param depth how many moves deep to count after the move
+     * @return the number of positions reached
+     */
+    private long countAfter(ChessMove move, int depth) {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor side = game.getTeamTurn();
+        board.makeMove(move);
+        game.setTeamTurn(side.opp());
+        try {
+            return count(depth);
+        } finally {
+            board.unmakeMove();
+            game.setTeamTurn(side);
+        }
+    }
+
+    /**
+     * Checks each reference position at every known depth up to a limit.
+     *
+     * @param maxDepth the deepest depth to check
+     * @param parallel  whether to count with a {@link ParallelPerft}
+     */
+    private static void runSuite(int maxDepth, boolean parallel) {
+        boolean allPassed = true;
+        for (ReferencePosition position : ReferencePosition.values()) {
+            ChessGame game = ChessGame.fromFen(position.getFen());
+            Perft perft = new Perft(game);
+            ParallelPerft parallelPerft = parallel ? new ParallelPerft(game) : null;
+            for (int depth = 1; depth <= Math.min(maxDepth, position.getMaxDepth()); depth++) {
+                long start = System.nanoTime();
+                long nodes = parallel ? parallelPerft.count(depth) : perft.count(depth);
+                boolean passed = nodes == position.getNodes(depth);
+                allPassed &= passed;
+                System.out.printf("%-12s depth %d: %s ", position, depth, passed ? "ok" : "MISMATCH expected " + position.getNodes(depth));
+                report(nodes, System.nanoTime() - start);
+            }
+        }
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints a node count with the time taken and nodes per second.
+     */
+    private static void report(long nodes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("nodes %d, %.3f s, %.0f nps%n", nodes, seconds, nodes / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,78 @@
+package chess.perft;
+
+/**
+ * A fixed-size cache of subtree node counts, shared by every thread of a
+ * {@link ParallelPerft} run.
+ * <p>
+ * Each entry is two longs: the position's Zobrist key mixed with the depth
+ * counted, and the count. As in the engine's transposition table, the key is
+ * stored XORed with the count, so a probe only trusts an entry if
+ * {@code storedKey ^ count} gives back the key it asked for, and threads read
+ * and write without locking. A new count always replaces the old one in its
+ * slot.
+ */
+public class PerftHashTable {
+
+    private static final int ENTRY_BYTES = 16;
+    // spreads depths over unrelated keys, so a position's counts at two depths do not share a slot
+    private static final long DEPTH_MIX = 0x9E3779B97F4A7C15L;
+
+    private final long[] keys;
+    private final long[] counts;
+    private final int mask;
+
+    /**
+     * @param megabytes the most memory the table may use, at least 1
+     */
+    public PerftHashTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("table size must be at least 1 MB");
+        }
+        long entries = Long.highestOneBit(megabytes * (1L << 20) / ENTRY_BYTES);
+        int size = (int) Math.min(entries, 1 << 30);
+        this.keys = new long[size];
+        this.counts = new long[size];
+        this.mask = size - 1;
+    }
+
+// Public Methods
+    /**
+     * Looks up a count
+     *
+     * @param key   the position's Zobrist key, including the side to move
+     * @param depth the depth counted
+     * @return the number of leaf nodes, or -1 if the count is not stored
+     */
+    public long probe(long key, int depth) {
+        long mixed = mix(key, depth);
+        int index = (int) mixed & mask;
+        long count = counts[index];
+        return (keys[index] ^ count) == mixed ? count : -1;
+    }
+
+    /**
+     * Stores a count
+     *
+     * @param key   the position's Zobrist key, including the side to move
+     * @param depth the depth counted
+     * @param count the number of leaf nodes
+     */
+    public void store(long key, int depth, long count) {
+        long mixed = mix(key, depth);
+        int index = (int) mixed & mask;
+        counts[index] = count;
+        keys[index] = mixed ^ count;
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+//Private methods
+    private static long mix(long key, int depth) {
+        return key ^ (depth * DEPTH_MIX);
+    }
+}
@@ -0,0 +1,80 @@
+package chess.pgn;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+/**
+ * One game of a Portable Game Notation file: its tag pairs, the moves of its
+ * main line and its result.
+ */
+public class PgnGame {
+
+    /** Result of a game still in progress or abandoned */
+    public static final String UNKNOWN_RESULT = "*";
+
+    private final Map<String, String> tags;
+    private final List<ChessMove> moves;
+    private final String result;
+
+    /**
+     * @param tags   the tag pairs, in the order they are written
+     * @param moves  the moves played from the starting position
+     * @param result {@code "1-0"}, {@code "0-1"}, {@code "1/2-1/2"} or {@link #UNKNOWN_RESULT}
+     */
+    public PgnGame(Map<String, String> tags, List<ChessMove> moves, String result) {
+        this.tags = tags;
+        this.moves = moves;
+        this.result = result;
+    }
+
+// Public Methods
+    /**
+     * @return the tag pairs, in the order they are written
+     */
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * @param name the tag name, e.g. {@code "White"}
+     * @return the tag's value, or null if the game does not have it
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return the moves played from the starting position
+     */
+    public List<ChessMove> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * @return the result token
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Creates the position the game starts from: the standard one, or the one
+     * in the game's {@code FEN} tag
+     *
+     * @return a new game in the starting position
+     */
+    public ChessGame startingPosition() {
+        String fen = tags.get("FEN");
+        return (fen == null) ? new ChessGame() : ChessGame.fromFen(fen);
+    }
+
+// Override Methods
+    @Override
+    public String toString() {
+        return "PgnGame [tags=" + tags + ", moves=" + moves.size() + ", result=" + result + "]";
+    }
+}
@@ -0,0 +1,320 @@
+package chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.movecalculators.Move;
+
+/**
+ * Reads the games of a Portable Game Notation file one at a time.
+ * <p>
+ * The file is pulled through a fixed buffer from a channel as games are
+ * asked for, so memory use depends on the longest game rather than the size
+ * of the file. Each SAN move is resolved against a live board as it is read,
+ * which checks that the game is legal. Comments, annotation glyphs and
+ * variations are skipped; only the main line is kept.
+ * <p>
+ * I/O errors are thrown as {@link UncheckedIOException}s and malformed games
+ * as {@link IllegalArgumentException}s naming the line they were found on.
+ */
+public class PgnReader implements Iterator<PgnGame>, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int NO_BYTE = -2;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder token = new StringBuilder(32);
+    private final San san = new San();
+    private byte[] value = new byte[64];
+    private int pushedBack = NO_BYTE;
+    private int line = 1;
+    private PgnGame next;
+
+    /**
+     * @param channel the channel to read the file from, which the reader closes
+     */
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+// Public Methods
+    /**
+     * Opens a file for reading
+     *
+     * @param path the PGN file
+     * @return a reader positioned at the file's first game
+     * @throws IOException if the file cannot be opened
+     */
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Reads ahead to the next game, if there is one
+     *
+     * @return True if another game follows
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readGame();
+        }
+        return next != null;
+    }
+
+    /**
+     * @return the next game in the file
+     * @throws NoSuchElementException if there are no more games
+     */
+    @Override
+    public PgnGame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        PgnGame game = next;
+        next = null;
+        return game;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+//Private methods
+    /**
+     * @return the next game, or null at the end of the file
+     */
+    private PgnGame readGame() {
+        int c = skipSpaceAndComments();
+        if (c < 0) {
+            return null;
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        while (c == '[') {
+            readTag(tags);
+            c = skipSpaceAndComments();
+        }
+
+        ChessGame game;
+        try {
+            game = (tags.containsKey("FEN")) ? ChessGame.fromFen(tags.get("FEN")) : new ChessGame();
+        } catch (IllegalArgumentException e) {
+            throw malformed(e.getMessage(), e);
+        }
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        List<ChessMove> moves = new ArrayList<>();
+        String result = PgnGame.UNKNOWN_RESULT;
+        for (; c >= 0; c = skipSpaceAndComments()) {
+            if (c == '[') {
+                // the next game's tags, after a game with no result
+                pushedBack = c;
+                break;
+            }
+            if (c == '(') {
+                skipVariation();
+                continue;
+            }
+            readToken(c);
+            if (isResult()) {
+                result = token.toString();
+                break;
+            }
+            int start = moveNumberLength();
+            if (start < token.length() && token.charAt(0) != '$') {
+                int move;
+                try {
+                    move = san.parse(board, turn, token, start, token.length());
+                } catch (IllegalArgumentException e) {
+                    throw malformed(e.getMessage(), e);
+                }
+                board.makeMove(move);
+                moves.add(Move.toChessMove(move));
+                turn = turn.opp();
+            }
+        }
+        return new PgnGame(tags, moves, result);
+    }
+
+    /**
+     * Reads a tag pair, the opening bracket already read
+     */
+    private void readTag(Map<String, String> tags) {
+        int c = skipSpace(read());
+        token.setLength(0);
+        while (c > ' ' && c != '"' && c != ']') {
+            token.append((char) c);
+            c = read();
+        }
+        String name = token.toString();
+        if (skipSpace(c) != '"') {
+            throw malformed("tag " + name + " has no value", null);
+        }
+        int length = 0;
+        for (c = read(); c != '"'; c = read()) {
+            if (c < 0 || c == '\n') {
+                throw malformed("tag " + name + " is not closed", null);
+            }
+            if (c == '\\') {
+                c = read();
+            }
+            if (length == value.length) {
+                value = Arrays.copyOf(value, length * 2);
+            }
+            value[length++] = (byte) c;
+        }
+        if (skipSpace(read()) != ']') {
+            throw malformed("tag " + name + " is not closed", null);
+        }
+        tags.put(name, new String(value, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a movetext token into {@link #token}: a move number, move, glyph
+     * or result. The byte that ends it is pushed back.
+     *
+     * @param c the token's first byte
+     */
+    private void readToken(int c) {
+        token.setLength(0);
+        while (c > ' ' && "{}();[".indexOf(c) < 0) {
+            token.append((char) c);
+            c = read();
+        }
+        pushedBack = c;
+        if (token.isEmpty()) {
+            throw malformed("unexpected '" + (char) read() + "'", null);
+        }
+    }
+
+    private boolean isResult() {
+        return PgnGame.UNKNOWN_RESULT.contentEquals(token) || "1-0".contentEquals(token)
+                || "0-1".contentEquals(token) || "1/2-1/2".contentEquals(token);
+    }
+
+    /**
+     * @return the length of the move number and dots the token starts with, if any
+     */
+    private int moveNumberLength() {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == token.length()) {
+            return i;
+        }
+        if (token.charAt(i) != '.') {
+            return 0;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skips a variation and any inside it, the opening parenthesis already read
+     */
+    private void skipVariation() {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c < 0) {
+                throw malformed("variation is not closed", null);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    /**
+     * @return the first byte that is not white space or part of a comment, or -1 at the end
+     */
+    private int skipSpaceAndComments() {
+        while (true) {
+            int c = skipSpace(read());
+            if (c == '{') {
+                skipPast('}');
+            } else if (c == ';' || c == '%') {
+                skipPast('\n');
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int skipSpace(int c) {
+        while (c >= 0 && c <= ' ') {
+            c = read();
+        }
+        return c;
+    }
+
+    private void skipPast(int end) {
+        int c = read();
+        while (c >= 0 && c != end) {
+            c = read();
+        }
+    }
+
+    /**
+     * @return the next byte of the file, or -1 at the end
+     */
+    private int read() {
+        if (pushedBack != NO_BYTE) {
+            int c = pushedBack;
+            pushedBack = NO_BYTE;
+            return c;
+        }
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            try {
+                int count;
+                do {
+                    count = channel.read(buffer);
+                } while (count == 0);
+                buffer.flip();
+                if (count < 0) {
+                    return -1;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int c = buffer.get() & 0xFF;
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private IllegalArgumentException malformed(String problem, Exception cause) {
+        return new IllegalArgumentException("line " + line + ": " + problem, cause);
+    }
+}
@@ -0,0 +1,164 @@
+package chess.pgn;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.movecalculators.Move;
+
+/**
+ * Writes games in Portable Game Notation, the counterpart of {@link PgnReader}.
+ * <p>
+ * Each game is written as its tag pairs followed by its moves in SAN, wrapped
+ * to lines of at most {@value #LINE_LENGTH} characters, and its result. Text
+ * passes through a fixed buffer to the channel, so writing any number of games
+ * takes the same memory.
+ */
+public class PgnWriter implements Closeable, Flushable {
+
+    /** Longest line written, as the PGN standard recommends */
+    public static final int LINE_LENGTH = 79;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+    private final StringBuilder word = new StringBuilder(16);
+    private final San san = new San();
+
+    /**
+     * @param channel the channel to write to, which the writer closes
+     */
+    public PgnWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+// Public Methods
+    /**
+     * Creates or replaces a file for writing
+     *
+     * @param path the PGN file
+     * @return a writer at the start of the empty file
+     * @throws IOException if the file cannot be created
+     */
+    public static PgnWriter create(Path path) throws IOException {
+        return new PgnWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Writes a game. Its moves must be legal from its starting position.
+     *
+     * @param game the game to write
+     * @throws IOException if the channel cannot be written
+     */
+    public void write(PgnGame game) throws IOException {
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            line.append('[').append(tag.getKey()).append(" \"");
+            String value = tag.getValue();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    line.append('\\');
+                }
+                line.append(c);
+            }
+            line.append("\"]");
+            endLine();
+        }
+        endLine();
+
+        ChessGame position = game.startingPosition();
+        ChessBoard board = position.getBoard();
+        ChessGame.TeamColor turn = position.getTeamTurn();
+        int number = position.getFullmoveNumber();
+        boolean first = true;
+        for (ChessMove move : game.getMoves()) {
+            if (turn == ChessGame.TeamColor.WHITE || first) {
+                word.append(number).append(turn == ChessGame.TeamColor.WHITE ? "." : "...");
+                appendWord();
+            }
+            san.format(board, turn, Move.of(move), word);
+            appendWord();
+            board.makeMove(move);
+            if (turn == ChessGame.TeamColor.BLACK) {
+                number++;
+            }
+            turn = turn.opp();
+            first = false;
+        }
+        word.append(game.getResult());
+        appendWord();
+        endLine();
+        endLine();
+    }
+
+    /**
+     * Writes everything buffered so far to the channel
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+//Private methods
+    /**
+     * Moves the word onto the current line, starting a new line first if it
+     * would not fit
+     */
+    private void appendWord() throws IOException {
+        if (!line.isEmpty() && line.length() + 1 + word.length() > LINE_LENGTH) {
+            endLine();
+        }
+        if (!line.isEmpty()) {
+            line.append(' ');
+        }
+        line.append(word);
+        word.setLength(0);
+    }
+
+    /**
+     * Encodes the current line and a line break into the buffer
+     */
+    private void endLine() throws IOException {
+        line.append('\n');
+        CharBuffer chars = CharBuffer.wrap(line);
+        encoder.reset();
+        CoderResult result = encoder.encode(chars, buffer, true);
+        while (result.isOverflow()) {
+            flush();
+            result = encoder.encode(chars, buffer, true);
+        }
+        line.setLength(0);
+    }
+}
@@ -0,0 +1,255 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.movecalculators.LegalMoveGenerator;
+import chess.movecalculators.Move;
+import chess.movecalculators.MoveList;
+
+/**
+ * Converts between moves and Standard Algebraic Notation, e.g. {@code Nbd7},
+ * {@code exd6}, {@code e8=Q+} or {@code O-O-O}.
+ * <p>
+ * A move is read by matching the text against the position's legal moves, so
+ * the text only has to name the piece, its destination and just enough of its
+ * starting square to tell it apart. Check, mate and annotation suffixes are
+ * ignored when reading and check and mate are added when writing.
+ * <p>
+ * A converter keeps its move list and generator between calls, so converting
+ * allocates nothing beyond the results. It is not thread safe.
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = "KQBNRP";
+
+    private final LegalMoveGenerator generator = new LegalMoveGenerator();
+    private final MoveList moves = new MoveList();
+
+// Public Methods
+    /**
+     * Reads a move for the side to move in a game
+     *
+     * @param game the game to move in
+     * @param text the move in SAN
+     * @return the move the text names
+     * @throws IllegalArgumentException if the text names no legal move, or more than one
+     */
+    public ChessMove parse(ChessGame game, CharSequence text) {
+        return Move.toChessMove(parse(game.getBoard(), game.getTeamTurn(), text, 0, text.length()));
+    }
+
+    /**
+     * Reads a move for a team from part of some text
+     *
+     * @param board     the board to move on
+     * @param teamColor the team to move
+     * @param text      the text holding the move
+     * @param start     the index of the move's first character
+     * @param end       the index after the move's last character
+     * @return the encoded move, see {@link Move}
+     * @throws IllegalArgumentException if the text names no legal move, or more than one
+     */
+    public int parse(ChessBoard board, ChessGame.TeamColor teamColor, CharSequence text, int start, int end) {
+        while (end > start && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        int first = start;
+        moves.clear();
+        generator.analyze(board, teamColor);
+        generator.generate(moves);
+
+        int castling = castlingSide(text, start, end);
+        if (castling != 0) {
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (Move.kind(move) == Move.CASTLING && Integer.signum(Move.to(move) - Move.from(move)) == castling) {
+                    return move;
+                }
+            }
+            throw invalid(text, first, end, "is not legal");
+        }
+
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        int letter = (end > start) ? PIECE_LETTERS.indexOf(text.charAt(start)) : -1;
+        if (letter >= 0) {
+            type = ChessPiece.PieceType.values()[letter];
+            start++;
+        }
+        ChessPiece.PieceType promotion = null;
+        if (end - start >= 3 && type == ChessPiece.PieceType.PAWN) {
+            int promoted = PIECE_LETTERS.indexOf(text.charAt(end - 1));
+            if (promoted > 0 && promoted < 5) {
+                promotion = ChessPiece.PieceType.values()[promoted];
+                end -= (text.charAt(end - 2) == '=') ? 2 : 1;
+            }
+        }
+        if (end - start < 2) {
+            throw invalid(text, first, end, "has no destination");
+        }
+        int to = square(text.charAt(end - 2), text.charAt(end - 1));
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(text, first, end, "is not SAN");
+            }
+        }
+        if (to < 0) {
+            throw invalid(text, first, end, "is not SAN");
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) == to && Move.kind(move) != Move.CASTLING
+                    && board.getPiece(from).getPieceType() == type
+                    && Move.promotion(move) == promotion
+                    && (fromFile < 0 || (from & 7) == fromFile)
+                    && (fromRank < 0 || (from >>> 3) == fromRank)) {
+                if (found != Move.NONE) {
+                    throw invalid(text, first, end, "is ambiguous");
+                }
+                found = move;
+            }
+        }
+        if (found == Move.NONE) {
+            throw invalid(text, first, end, "is not legal");
+        }
+        return found;
+    }
+
+    /**
+     * Writes a legal move for the side to move in a game
+     *
+     * @param game the game to move in
+     * @param move the move
+     * @return the move in SAN
+     */
+    public String format(ChessGame game, ChessMove move) {
+        StringBuilder text = new StringBuilder(8);
+        format(game.getBoard(), game.getTeamTurn(), Move.of(move), text);
+        return text.toString();
+    }
+
+    /**
+     * Writes a legal move for a team onto some text. Moves given as
+     * {@link ChessMove}s may be plain encoded moves; castling and en passant
+     * are recognized from the pieces on the board.
+     *
+     * @param board     the board to move on
+     * @param teamColor the team to move
+     * @param move      the encoded move, see {@link Move}
+     * @param text      the text to append to
+     */
+    public void format(ChessBoard board, ChessGame.TeamColor teamColor, int move, StringBuilder text) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece.PieceType type = board.getPiece(from).getPieceType();
+        boolean capture = board.getPiece(to) != null;
+        if (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            move = Move.castling(from, to);
+            text.append((to > from) ? "O-O" : "O-O-O");
+        } else if (type == ChessPiece.PieceType.PAWN) {
+            if (!capture && (from & 7) != (to & 7)) {
+                move = Move.enPassant(from, to);
+                capture = true;
+            }
+            if (capture) {
+                text.append((char) ('a' + (from & 7))).append('x');
+            }
+            appendSquare(to, text);
+            if (Move.promotion(move) != null) {
+                text.append('=').append(PIECE_LETTERS.charAt(Move.promotion(move).ordinal()));
+            }
+        } else {
+            text.append(PIECE_LETTERS.charAt(type.ordinal()));
+            appendDisambiguation(board, teamColor, type, from, to, text);
+            if (capture) {
+                text.append('x');
+            }
+            appendSquare(to, text);
+        }
+
+        board.makeMove(move);
+        generator.analyze(board, teamColor.opp());
+        if (generator.isInCheck()) {
+            moves.clear();
+            generator.generate(moves);
+            text.append(moves.isEmpty() ? '#' : '+');
+        }
+        board.unmakeMove();
+    }
+
+//Private methods
+    /**
+     * Adds the file, rank or both of a piece's square when another piece of
+     * the same type could also reach the destination
+     */
+    private void appendDisambiguation(ChessBoard board, ChessGame.TeamColor teamColor, ChessPiece.PieceType type,
+                                      int from, int to, StringBuilder text) {
+        moves.clear();
+        generator.analyze(board, teamColor);
+        generator.generate(moves);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < moves.size(); i++) {
+            int other = Move.from(moves.get(i));
+            if (Move.to(moves.get(i)) == to && other != from && board.getPiece(other).getPieceType() == type) {
+                ambiguous = true;
+                sameFile |= (other & 7) == (from & 7);
+                sameRank |= (other >>> 3) == (from >>> 3);
+            }
+        }
+        if (ambiguous && (!sameFile || sameRank)) {
+            text.append((char) ('a' + (from & 7)));
+        }
+        if (sameFile) {
+            text.append((char) ('1' + (from >>> 3)));
+        }
+    }
+
+    /**
+     * @return 1 for kingside castling, -1 for queenside, 0 for any other move
+     */
+    private static int castlingSide(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length != 3 && length != 5) {
+            return 0;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            boolean expected = ((i - start) % 2 == 0) ? (c == 'O' || c == '0') : c == '-';
+            if (!expected) {
+                return 0;
+            }
+        }
+        return (length == 3) ? 1 : -1;
+    }
+
+    /**
+     * @return the square index named by a file and rank, or -1 if they name none
+     */
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return (rank - '1') * 8 + (file - 'a');
+    }
+
+    private static void appendSquare(int square, StringBuilder text) {
+        text.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    private static IllegalArgumentException invalid(CharSequence text, int start, int end, String problem) {
+        return new IllegalArgumentException("move '" + text.subSequence(start, end) + "' " + problem);
+    }
+}
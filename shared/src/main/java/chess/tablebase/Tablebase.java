@@ -0,0 +1,379 @@
+package chess.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * A table of the exact value of every position with one set of pieces, e.g.
+ * king and queen against king, with either side to move.
+ * <p>
+ * Each position is one byte, found by {@link #index(int, int[])}: the side to
+ * move, the white king's square reduced by symmetry, then the square of every
+ * other piece. Without pawns the board can be mirrored and rotated, so the
+ * white king only needs the 10 squares of the a1-d1-d4 triangle; with pawns it
+ * can only be mirrored left to right, which leaves 32 squares. Of the
+ * positions that are the same under symmetry only the one with the smallest
+ * index is filled in.
+ * <p>
+ * A byte of 0 is a draw; otherwise it is one more than the number of plies to
+ * mate, which is odd if the side to move mates and even if it is mated. A
+ * table is stored as these bytes alone, and is memory-mapped when opened, so
+ * probing reads one byte and is safe from any number of threads.
+ */
+public class Tablebase {
+
+    /** Value of a drawn position */
+    public static final int DRAW = 0;
+    /** Most plies to mate a value can hold */
+    public static final int MAX_PLIES = 252;
+
+    // byte values used while generating and for positions that cannot occur
+    static final int UNKNOWN = 254;
+    static final int INVALID = 255;
+
+    private static final String PIECE_LETTERS = "KQBNRP";
+    private static final int[][] TRANSFORMS = new int[8][64];
+    /** Index of a white king square in the a1-d1-d4 triangle, or -1 */
+    private static final int[] TRIANGLE_INDEX = new int[64];
+    private static final int[] TRIANGLE_SQUARES = new int[10];
+    /** Index of a white king square on files a-d, or -1 */
+    private static final int[] HALF_INDEX = new int[64];
+    private static final int[] HALF_SQUARES = new int[32];
+
+    static {
+        for (int transform = 0; transform < 8; transform++) {
+            for (int square = 0; square < 64; square++) {
+                int file = square & 7;
+                int rank = square >>> 3;
+                if ((transform & 1) != 0) {
+                    file = 7 - file;
+                }
+                if ((transform & 2) != 0) {
+                    rank = 7 - rank;
+                }
+                TRANSFORMS[transform][square] = ((transform & 4) != 0) ? file * 8 + rank : rank * 8 + file;
+            }
+        }
+        int triangle = 0;
+        int half = 0;
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7;
+            int rank = square >>> 3;
+            TRIANGLE_INDEX[square] = -1;
+            HALF_INDEX[square] = -1;
+            if (file <= 3 && rank <= file) {
+                TRIANGLE_SQUARES[triangle] = square;
+                TRIANGLE_INDEX[square] = triangle++;
+            }
+            if (file <= 3) {
+                HALF_SQUARES[half] = square;
+                HALF_INDEX[square] = half++;
+            }
+        }
+    }
+
+    private final String name;
+    private final ChessPiece[] pieces;
+    private final long materialKey;
+    private final boolean pawns;
+    private final ByteBuffer values;
+    private final long size;
+
+    /**
+     * @param name   the table's material, e.g. {@code "KBNvK"}
+     * @param values the table's bytes, see {@link #size(String)}
+     */
+    Tablebase(String name, ByteBuffer values) {
+        this.name = name;
+        this.pieces = parse(name);
+        boolean anyPawns = false;
+        for (ChessPiece piece : pieces) {
+            anyPawns |= piece.getPieceType() == ChessPiece.PieceType.PAWN;
+        }
+        this.pawns = anyPawns;
+        this.materialKey = materialKey(pieces);
+        this.values = values;
+        this.size = size(pieces.length, anyPawns);
+        if (values.capacity() != size) {
+            throw new IllegalArgumentException(name + " needs " + size + " bytes, not " + values.capacity());
+        }
+    }
+
+// Public Methods
+    /**
+     * Maps a table file written by {@link #write(Path)}
+     *
+     * @param path the file, named for its material, e.g. {@code KQvK.tb}
+     * @return the table
+     * @throws IOException if the file cannot be read or has the wrong size
+     */
+    public static Tablebase open(Path path) throws IOException {
+        String file = path.getFileName().toString();
+        String name = file.substring(0, file.lastIndexOf('.'));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Tablebase(name, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + " is not a tablebase", e);
+        }
+    }
+
+    /**
+     * Writes the table's bytes to a file
+     *
+     * @param path the file, which should be named {@link #getName()} plus {@code .tb}
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer all = values.duplicate().clear();
+            while (all.hasRemaining()) {
+                channel.write(all);
+            }
+        }
+    }
+
+    /**
+     * @return the table's material, e.g. {@code "KQvK"}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of pieces, kings included
+     */
+    public int getPieceCount() {
+        return pieces.length + 2;
+    }
+
+    /**
+     * Looks a position up. The board must hold exactly this table's pieces,
+     * or the same with the colors swapped, and no castling or en passant.
+     * Boards missing a king are not found.
+     *
+     * @param board     the position
+     * @param teamColor the side to move
+     * @return the position's value, see {@link #wdl(int)}, or
+     * {@link Tablebases#NOT_FOUND} if the position cannot occur
+     */
+    public int probe(ChessBoard board, ChessGame.TeamColor teamColor) {
+        return probe(board, teamColor, new int[getPieceCount()], new int[getPieceCount()]);
+    }
+
+    /**
+     * Looks a position up like {@link #probe(ChessBoard, ChessGame.TeamColor)},
+     * working in buffers the caller owns so that nothing is allocated
+     *
+     * @param board       the position
+     * @param teamColor   the side to move
+     * @param squares     a buffer of at least {@link #getPieceCount()} ints
+     * @param transformed another buffer of at least {@link #getPieceCount()} ints
+     * @return the position's value, see {@link #wdl(int)}, or
+     * {@link Tablebases#NOT_FOUND} if the position cannot occur
+     */
+    public int probe(ChessBoard board, ChessGame.TeamColor teamColor, int[] squares, int[] transformed) {
+        boolean flip = Tablebases.materialKey(board) != materialKey;
+        ChessGame.TeamColor white = flip ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int whiteKing = board.getKingSquare(white);
+        int blackKing = board.getKingSquare(white.opp());
+        if (whiteKing < 0 || blackKing < 0) {
+            return Tablebases.NOT_FOUND;
+        }
+        int mirror = flip ? 56 : 0;
+        squares[0] = whiteKing ^ mirror;
+        squares[1] = blackKing ^ mirror;
+        long used = 0L;
+        for (int i = 0; i < pieces.length; i++) {
+            ChessGame.TeamColor color = flip ? pieces[i].getTeamColor().opp() : pieces[i].getTeamColor();
+            long bits = board.getPieces(color, pieces[i].getPieceType()) & ~used;
+            used |= Bitboards.mask(Bitboards.first(bits));
+            squares[i + 2] = Bitboards.first(bits) ^ mirror;
+        }
+        int side = ((teamColor == ChessGame.TeamColor.BLACK) != flip) ? 1 : 0;
+        int value = values.get((int) index(side, squares, transformed)) & 0xFF;
+        return (value == INVALID || value == UNKNOWN) ? Tablebases.NOT_FOUND : value;
+    }
+
+    /**
+     * @param value a probed value
+     * @return 1 if the side to move wins, -1 if it loses, 0 for a draw
+     */
+    public static int wdl(int value) {
+        if (value == DRAW) {
+            return 0;
+        }
+        return ((value - 1) % 2 == 1) ? 1 : -1;
+    }
+
+    /**
+     * @param value a probed value
+     * @return the plies until mate with best play, or -1 for a draw
+     */
+    public static int pliesToMate(int value) {
+        return value - 1;
+    }
+
+    /**
+     * @param name a table's material, e.g. {@code "KQvK"}
+     * @return the number of bytes the table takes
+     */
+    public static long size(String name) {
+        ChessPiece[] pieces = parse(name);
+        boolean pawns = false;
+        for (ChessPiece piece : pieces) {
+            pawns |= piece.getPieceType() == ChessPiece.PieceType.PAWN;
+        }
+        return size(pieces.length, pawns);
+    }
+
+    /**
+     * Computes where a position is kept. Of the positions the same as this one
+     * under symmetry, the index of the one that comes first is returned, so
+     * every symmetric copy of a position finds the same byte.
+     *
+     * @param side    0 if white is to move, 1 if black is
+     * @param squares the white king's square, the black king's square, then
+     *                the square of each other piece in table order
+     * @return the position's index
+     */
+    public long index(int side, int[] squares) {
+        return index(side, squares, new int[getPieceCount()]);
+    }
+
+    /**
+     * Computes where a position is kept like {@link #index(int, int[])},
+     * transforming the squares in a buffer the caller owns
+     *
+     * @param side        0 if white is to move, 1 if black is
+     * @param squares     the squares as {@link #index(int, int[])} takes them,
+     *                    in the first {@link #getPieceCount()} ints
+     * @param transformed a buffer of at least {@link #getPieceCount()} ints
+     * @return the position's index
+     */
+    public long index(int side, int[] squares, int[] transformed) {
+        int count = getPieceCount();
+        long best = Long.MAX_VALUE;
+        for (int transform = 0; transform < (pawns ? 2 : 8); transform++) {
+            int[] map = TRANSFORMS[transform];
+            int king = pawns ? HALF_INDEX[map[squares[0]]] : TRIANGLE_INDEX[map[squares[0]]];
+            if (king < 0) {
+                continue;
+            }
+            for (int i = 1; i < count; i++) {
+                transformed[i] = map[squares[i]];
+            }
+            sortIdenticalPieces(transformed);
+            long index = (long) side * kingSquares() + king;
+            for (int i = 1; i < count; i++) {
+                index = index * 64 + transformed[i];
+            }
+            best = Math.min(best, index);
+        }
+        return best;
+    }
+
+    /**
+     * Fills in the squares of the position at an index, as {@link #index}
+     * takes them
+     *
+     * @return 0 if white is to move, 1 if black is
+     */
+    int decode(long index, int[] squares) {
+        for (int i = squares.length - 1; i >= 1; i--) {
+            squares[i] = (int) (index & 63);
+            index >>>= 6;
+        }
+        int king = (int) (index % kingSquares());
+        squares[0] = pawns ? HALF_SQUARES[king] : TRIANGLE_SQUARES[king];
+        return (int) (index / kingSquares());
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return the material key, see {@link Tablebases#materialKey(ChessBoard)},
+     * of a material name
+     */
+    static long materialKey(String name) {
+        return materialKey(parse(name));
+    }
+
+    ChessPiece[] pieces() {
+        return pieces;
+    }
+
+    long materialKey() {
+        return materialKey;
+    }
+
+    ByteBuffer values() {
+        return values;
+    }
+
+//Private methods
+    /**
+     * Sorts each run of identical pieces by square, so swapping them does not
+     * change the index
+     */
+    private void sortIdenticalPieces(int[] squares) {
+        for (int i = 3; i < getPieceCount(); i++) {
+            for (int j = i; j > 2 && pieces[j - 2] == pieces[j - 3] && squares[j] < squares[j - 1]; j--) {
+                int swap = squares[j];
+                squares[j] = squares[j - 1];
+                squares[j - 1] = swap;
+            }
+        }
+    }
+
+    private static long materialKey(ChessPiece[] pieces) {
+        long key = 0L;
+        for (ChessPiece piece : pieces) {
+            key += 1L << (4 * piece.getIndex());
+        }
+        return key;
+    }
+
+    private int kingSquares() {
+        return pawns ? HALF_SQUARES.length : TRIANGLE_SQUARES.length;
+    }
+
+    private static long size(int pieceCount, boolean pawns) {
+        return 2L * (pawns ? HALF_SQUARES.length : TRIANGLE_SQUARES.length) << (6 * (pieceCount + 1));
+    }
+
+    /**
+     * @return the non-king pieces of a material name, white first, in the
+     * order they are written
+     */
+    private static ChessPiece[] parse(String name) {
+        int versus = name.indexOf('v');
+        if (!name.startsWith("K") || versus < 0 || versus + 1 >= name.length() || name.charAt(versus + 1) != 'K') {
+            throw new IllegalArgumentException("invalid material " + name);
+        }
+        ChessPiece[] pieces = new ChessPiece[name.length() - 3];
+        int count = 0;
+        for (int i = 1; i < name.length(); i++) {
+            if (i == versus || i == versus + 1) {
+                continue;
+            }
+            int type = PIECE_LETTERS.indexOf(name.charAt(i));
+            if (type <= 0) {
+                throw new IllegalArgumentException("invalid material " + name);
+            }
+            ChessGame.TeamColor color = (i < versus) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            pieces[count++] = ChessPiece.of(color, ChessPiece.PieceType.values()[type]);
+        }
+        return pieces;
+    }
+}
@@ -0,0 +1,440 @@
+package chess.tablebase;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.movecalculators.LegalMoveGenerator;
+import chess.movecalculators.MagicBitboards;
+import chess.movecalculators.Move;
+import chess.movecalculators.MoveList;
+
+/**
+ * Builds one {@link Tablebase} by retrograde analysis.
+ * <p>
+ * A first pass marks every index that is not a legal, canonical position as
+ * invalid, scores mates and stalemates, and looks up every capture and
+ * promotion in the smaller tables. Then, one ply count at a time, every
+ * position lost in {@code n} plies makes each position that can move into it
+ * a win in {@code n + 1}, found by taking moves back rather than generating
+ * them; and every position won in {@code n} plies has its predecessors checked
+ * to see if all their moves now lead to wins for the opponent, which makes
+ * them lost in {@code n + 1}. Whatever is left once no more positions are
+ * decided is a draw.
+ * <p>
+ * The tables a capture or promotion leads to must already be in the registry
+ * passed in; {@link Tablebases#generate(String)} sees to that.
+ */
+final class TablebaseGenerator {
+
+    private static final String ORDER = "QRBNP";
+    private static final int NO_EXITS = 0;
+    private static final int NOT_LOST = 255;
+
+    private final Tablebases registry;
+    private final Tablebase table;
+    private final ChessPiece[] pieces;
+    private final byte[] values;
+    /**
+     * For each position, the plies to be mated if every capture and promotion
+     * leads to a win for the opponent, {@link #NO_EXITS} if it has none, or
+     * {@link #NOT_LOST} if one does not
+     */
+    private final byte[] exits;
+
+    private final ChessBoard board = new ChessBoard();
+    private final LegalMoveGenerator generator = new LegalMoveGenerator();
+    private final MoveList moves = new MoveList();
+    private final int[] squares;
+    private final int[] parent;
+    private final int[] candidate;
+    private final int[] placed;
+    private final int[] probed;
+    private final int[] transformed;
+
+    /**
+     * @param material the table's material, e.g. {@code "KRvK"}
+     * @param registry the smaller tables captures and promotions lead to
+     */
+    TablebaseGenerator(String material, Tablebases registry) {
+        long size = Tablebase.size(material);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(material + " is too large to generate");
+        }
+        this.registry = registry;
+        this.values = new byte[(int) size];
+        this.exits = new byte[(int) size];
+        this.table = new Tablebase(material, ByteBuffer.wrap(values));
+        this.pieces = table.pieces();
+        this.squares = new int[pieces.length + 2];
+        this.parent = new int[pieces.length + 2];
+        this.candidate = new int[pieces.length + 2];
+        this.placed = new int[pieces.length + 2];
+        this.probed = new int[pieces.length + 2];
+        this.transformed = new int[pieces.length + 2];
+        Arrays.fill(placed, -1);
+    }
+
+// Public Methods
+    /**
+     * Lists the tables a table's captures and promotions lead to, other than
+     * bare kings
+     *
+     * @param material a table's material, e.g. {@code "KPvKR"}
+     * @return the smaller tables' materials
+     */
+    static List<String> successors(String material) {
+        int versus = material.indexOf('v');
+        String white = material.substring(1, versus);
+        String black = material.substring(versus + 2);
+        List<String> successors = new ArrayList<>();
+        for (int side = 0; side < 2; side++) {
+            String own = (side == 0) ? white : black;
+            String other = (side == 0) ? black : white;
+            for (int i = 0; i < own.length(); i++) {
+                String captured = own.substring(0, i) + own.substring(i + 1);
+                if (!captured.isEmpty() || !other.isEmpty()) {
+                    addName(successors, captured, other);
+                }
+                if (own.charAt(i) == 'P') {
+                    for (char promotion : "QRBN".toCharArray()) {
+                        addName(successors, own.substring(0, i) + promotion + own.substring(i + 1), other);
+                    }
+                }
+            }
+        }
+        return successors;
+    }
+
+    /**
+     * Generates the table
+     *
+     * @return the finished table, held in memory
+     */
+    Tablebase generate() {
+        int highest = initialize();
+        for (int plies = 0; plies <= Math.min(highest + 1, Tablebase.MAX_PLIES - 1); plies++) {
+            boolean changed = false;
+            for (int index = 0; index < values.length; index++) {
+                if ((values[index] & 0xFF) == plies + 1) {
+                    changed |= (plies % 2 == 0) ? propagateLoss(index, plies) : propagateWin(index, plies);
+                }
+                if (plies % 2 == 1 && (exits[index] & 0xFF) == plies + 1 && (values[index] & 0xFF) == Tablebase.UNKNOWN
+                        && allMovesLose(index, plies)) {
+                    values[index] = (byte) (plies + 2);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                highest = Math.max(highest, plies + 1);
+            }
+        }
+        for (int index = 0; index < values.length; index++) {
+            if ((values[index] & 0xFF) == Tablebase.UNKNOWN) {
+                values[index] = Tablebase.DRAW;
+            }
+        }
+        return table;
+    }
+
+//Private methods
+    /**
+     * Scores every position that can be scored without looking at the rest
+     * of this table
+     *
+     * @return the most plies of any value found
+     */
+    private int initialize() {
+        int highest = 0;
+        for (int index = 0; index < values.length; index++) {
+            int side = table.decode(index, squares);
+            if (!isValid(index, side)) {
+                values[index] = (byte) Tablebase.INVALID;
+                continue;
+            }
+            ChessGame.TeamColor turn = color(side);
+            generator.analyze(board, turn);
+            moves.clear();
+            generator.generate(moves);
+            if (moves.isEmpty()) {
+                values[index] = (byte) (generator.isInCheck() ? 1 : Tablebase.DRAW);
+                continue;
+            }
+
+            int win = Integer.MAX_VALUE;
+            int loss = NO_EXITS;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (!isExit(move)) {
+                    continue;
+                }
+                board.makeMove(move);
+                int value = registry.probe(board, turn.opp(), probed, transformed);
+                board.unmakeMove();
+                if (value == Tablebases.NOT_FOUND) {
+                    throw new IllegalStateException("missing table for a capture or promotion from " + table.getName());
+                }
+                int result = Tablebase.wdl(value);
+                if (result < 0) {
+                    win = Math.min(win, Tablebase.pliesToMate(value) + 1);
+                } else if (result == 0) {
+                    loss = NOT_LOST;
+                } else if (loss != NOT_LOST) {
+                    loss = Math.max(loss, Tablebase.pliesToMate(value) + 1);
+                }
+            }
+            if (win != Integer.MAX_VALUE) {
+                values[index] = (byte) (checkPlies(win) + 1);
+                highest = Math.max(highest, win);
+                loss = NOT_LOST;
+            } else {
+                values[index] = (byte) Tablebase.UNKNOWN;
+            }
+            exits[index] = (byte) ((loss == NOT_LOST) ? NOT_LOST : checkPlies(loss));
+            highest = Math.max(highest, (loss == NOT_LOST) ? 0 : loss);
+        }
+        return highest;
+    }
+
+    /**
+     * Decides if a decoded index is a position this table keeps, and sets the
+     * board up with it if so
+     */
+    private boolean isValid(int index, int side) {
+        long occupied = 0L;
+        for (int i = 0; i < squares.length; i++) {
+            long mask = Bitboards.mask(squares[i]);
+            if ((occupied & mask) != 0) {
+                return false;
+            }
+            occupied |= mask;
+            if (i >= 2 && pieces[i - 2].getPieceType() == ChessPiece.PieceType.PAWN
+                    && (squares[i] < 8 || squares[i] >= 56)) {
+                return false;
+            }
+        }
+        if ((Bitboards.KING_ATTACKS[squares[0]] & Bitboards.mask(squares[1])) != 0
+                || table.index(side, squares, transformed) != index) {
+            return false;
+        }
+        setUp(squares);
+        ChessGame.TeamColor waiting = color(side).opp();
+        return !board.isSquareAttacked(board.getKingSquare(waiting), waiting.opp());
+    }
+
+    /**
+     * Makes every position that can move into a position lost in {@code plies}
+     * a win in {@code plies + 1}
+     */
+    private boolean propagateLoss(int index, int plies) {
+        int value = plies + 2;
+        boolean changed = false;
+        int side = table.decode(index, squares);
+        for (int i = 0; i < squares.length; i++) {
+            if (side(i) == side) {
+                continue;
+            }
+            for (long origins = origins(i); origins != 0; origins &= origins - 1) {
+                int predecessor = predecessor(i, Bitboards.first(origins), 1 - side);
+                int current = values[predecessor] & 0xFF;
+                if (current == Tablebase.UNKNOWN || (current != Tablebase.INVALID && current > value
+                        && Tablebase.wdl(current) > 0)) {
+                    values[predecessor] = (byte) (checkPlies(plies + 1) + 1);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks every undecided position that can move into a position won in
+     * {@code plies}, making it a loss in {@code plies + 1} if all its moves
+     * now lead to wins for the opponent
+     */
+    private boolean propagateWin(int index, int plies) {
+        boolean changed = false;
+        int side = table.decode(index, squares);
+        for (int i = 0; i < squares.length; i++) {
+            if (side(i) == side) {
+                continue;
+            }
+            for (long origins = origins(i); origins != 0; origins &= origins - 1) {
+                int predecessor = predecessor(i, Bitboards.first(origins), 1 - side);
+                if ((values[predecessor] & 0xFF) == Tablebase.UNKNOWN && (exits[predecessor] & 0xFF) != NOT_LOST
+                        && allMovesLose(predecessor, plies)) {
+                    values[predecessor] = (byte) (checkPlies(plies + 1) + 1);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return True if every move of a position leads to a decided win for the
+     * opponent, the slowest of them in exactly {@code plies}
+     */
+    private boolean allMovesLose(int index, int plies) {
+        int side = table.decode(index, candidate);
+        setUp(candidate);
+        ChessGame.TeamColor turn = color(side);
+        generator.analyze(board, turn);
+        moves.clear();
+        generator.generate(moves);
+        int slowest = -1;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            boolean exit = isExit(move);
+            board.makeMove(move);
+            int value = exit ? registry.probe(board, turn.opp(), probed, transformed)
+                    : table.probe(board, turn.opp(), probed, transformed);
+            board.unmakeMove();
+            if (value == Tablebases.NOT_FOUND || Tablebase.wdl(value) <= 0) {
+                return false;
+            }
+            slowest = Math.max(slowest, Tablebase.pliesToMate(value));
+        }
+        return slowest == plies;
+    }
+
+    /**
+     * @return the index of the position with the piece at position {@code i}
+     * of {@link #squares} moved back to a square
+     */
+    private int predecessor(int i, int origin, int side) {
+        System.arraycopy(squares, 0, parent, 0, squares.length);
+        parent[i] = origin;
+        return (int) table.index(side, parent, transformed);
+    }
+
+    /**
+     * @return mask of the empty squares the piece at position {@code i} of
+     * {@link #squares} could have moved from, without capturing or promoting
+     */
+    private long origins(int i) {
+        long occupied = 0L;
+        for (int square : squares) {
+            occupied |= Bitboards.mask(square);
+        }
+        int square = squares[i];
+        ChessPiece.PieceType type = (i < 2) ? ChessPiece.PieceType.KING : pieces[i - 2].getPieceType();
+        long origins = switch (type) {
+            case KING -> Bitboards.KING_ATTACKS[square];
+            case KNIGHT -> Bitboards.KNIGHT_ATTACKS[square];
+            case BISHOP -> MagicBitboards.bishopAttacks(square, occupied);
+            case ROOK -> MagicBitboards.rookAttacks(square, occupied);
+            case QUEEN -> MagicBitboards.queenAttacks(square, occupied);
+            case PAWN -> pawnOrigins(square, side(i) == 0, occupied);
+        };
+        return origins & ~occupied;
+    }
+
+    private static long pawnOrigins(int square, boolean white, long occupied) {
+        int step = white ? -8 : 8;
+        int back = square + step;
+        if (back < 8 || back >= 56) {
+            return 0L;
+        }
+        long origins = Bitboards.mask(back);
+        int rank = square >>> 3;
+        if ((white ? rank == 3 : rank == 4) && (occupied & Bitboards.mask(back)) == 0) {
+            origins |= Bitboards.mask(back + step);
+        }
+        return origins;
+    }
+
+    /**
+     * @return 0 if the piece at position {@code i} of {@link #squares} is
+     * white, 1 if it is black
+     */
+    private int side(int i) {
+        if (i < 2) {
+            return i;
+        }
+        return pieces[i - 2].getTeamColor().ordinal();
+    }
+
+    private static ChessGame.TeamColor color(int side) {
+        return (side == 0) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    /**
+     * @return True if a move changes the material, leaving this table
+     */
+    private boolean isExit(int move) {
+        return Move.kind(move) == Move.PROMOTION || Move.kind(move) == Move.EN_PASSANT
+                || board.getPiece(Move.to(move)) != null;
+    }
+
+    /**
+     * Moves the board's pieces to a position's squares
+     */
+    private void setUp(int[] squares) {
+        for (int square : placed) {
+            if (square >= 0) {
+                board.addPiece(ChessPosition.of(square), null);
+            }
+        }
+        board.setCastlingRights(0);
+        board.setEnPassantSquare(-1);
+        board.addPiece(ChessPosition.of(squares[0]), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(squares[1]), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        for (int i = 2; i < squares.length; i++) {
+            board.addPiece(ChessPosition.of(squares[i]), pieces[i - 2]);
+        }
+        System.arraycopy(squares, 0, placed, 0, squares.length);
+    }
+
+    private int checkPlies(int plies) {
+        if (plies > Tablebase.MAX_PLIES) {
+            throw new IllegalStateException(table.getName() + " has a mate longer than " + Tablebase.MAX_PLIES + " plies");
+        }
+        return plies;
+    }
+
+    /**
+     * Adds a material name with each side's pieces in the usual order and the
+     * stronger side first
+     */
+    private static void addName(List<String> names, String white, String black) {
+        white = sortPieces(white);
+        black = sortPieces(black);
+        if (black.length() > white.length()
+                || (black.length() == white.length() && strength(black) > strength(white))) {
+            String swap = white;
+            white = black;
+            black = swap;
+        }
+        String name = "K" + white + "vK" + black;
+        if (!names.contains(name)) {
+            names.add(name);
+        }
+    }
+
+    private static String sortPieces(String side) {
+        char[] letters = side.toCharArray();
+        for (int i = 1; i < letters.length; i++) {
+            for (int j = i; j > 0 && ORDER.indexOf(letters[j]) < ORDER.indexOf(letters[j - 1]); j--) {
+                char swap = letters[j];
+                letters[j] = letters[j - 1];
+                letters[j - 1] = swap;
+            }
+        }
+        return new String(letters);
+    }
+
+    private static int strength(String side) {
+        int strength = 0;
+        for (int i = 0; i < side.length(); i++) {
+            strength += ORDER.length() - ORDER.indexOf(side.charAt(i));
+        }
+        return strength;
+    }
+}
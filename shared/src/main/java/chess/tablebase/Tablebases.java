@@ -0,0 +1,182 @@
+package chess.tablebase;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * A set of {@link Tablebase}s, looked up by the material on a board.
+ * <p>
+ * Tables are generated with {@link #generate(String)}, which first generates
+ * every smaller table a capture or promotion can lead to, and saved and
+ * loaded as one file per table. A table answers for its material with either
+ * color, so {@code KQvK} also answers king against king and queen.
+ * <p>
+ * Three- and four-piece tables take at most a few megabytes each (KBNvK is
+ * 5 MB, KPvKP 16 MB) and generate in seconds to minutes. Five pieces multiply
+ * the size by 64, to 335 MB or more per table, and are not worth generating
+ * with this generator.
+ */
+public class Tablebases {
+
+    /** Probe result for a position no table covers */
+    public static final int NOT_FOUND = -1;
+
+    private Tablebase[] tables = new Tablebase[0];
+    private int maxPieces = 2;
+
+// Public Methods
+    /**
+     * Loads every {@code .tb} file in a directory
+     *
+     * @param directory the directory the tables were saved to
+     * @return the tables
+     * @throws IOException if a file cannot be read
+     */
+    public static Tablebases open(Path directory) throws IOException {
+        Tablebases tablebases = new Tablebases();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tb")) {
+            for (Path file : files) {
+                tablebases.add(Tablebase.open(file));
+            }
+        }
+        return tablebases;
+    }
+
+    /**
+     * Saves every table, one file each
+     *
+     * @param directory the directory to write to
+     * @throws IOException if a file cannot be written
+     */
+    public void write(Path directory) throws IOException {
+        for (Tablebase table : tables) {
+            table.write(directory.resolve(table.getName() + ".tb"));
+        }
+    }
+
+    /**
+     * Generates a table, and any smaller tables it needs, unless it is
+     * already present
+     *
+     * @param material the table's material, e.g. {@code "KBNvK"}
+     * @return the table
+     */
+    public Tablebase generate(String material) {
+        Tablebase existing = find(Tablebase.materialKey(material));
+        if (existing != null) {
+            return existing;
+        }
+        for (String smaller : TablebaseGenerator.successors(material)) {
+            generate(smaller);
+        }
+        Tablebase table = new TablebaseGenerator(material, this).generate();
+        add(table);
+        return table;
+    }
+
+    /**
+     * Adds a table
+     *
+     * @param table the table to add
+     */
+    public void add(Tablebase table) {
+        tables = Arrays.copyOf(tables, tables.length + 1);
+        tables[tables.length - 1] = table;
+        maxPieces = Math.max(maxPieces, table.getPieceCount());
+    }
+
+    /**
+     * @return the most pieces, kings included, of any table
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Looks up the value of a game's position
+     *
+     * @param game the game
+     * @return the position's value, see {@link Tablebase#wdl(int)}, or {@link #NOT_FOUND}
+     */
+    public int probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * Looks up the value of a position. Positions with castling rights, an
+     * en passant square or a missing king are not covered.
+     *
+     * @param board     the position
+     * @param teamColor the side to move
+     * @return the position's value, see {@link Tablebase#wdl(int)}, or {@link #NOT_FOUND}
+     */
+    public int probe(ChessBoard board, ChessGame.TeamColor teamColor) {
+        return probe(board, teamColor, new int[maxPieces], new int[maxPieces]);
+    }
+
+    /**
+     * Looks up the value of a position like {@link #probe(ChessBoard, ChessGame.TeamColor)},
+     * working in buffers the caller owns so that nothing is allocated. The
+     * tables are shared, so each thread probing them needs its own buffers.
+     *
+     * @param board       the position
+     * @param teamColor   the side to move
+     * @param squares     a buffer of at least {@link #getMaxPieces()} ints
+     * @param transformed another buffer of at least {@link #getMaxPieces()} ints
+     * @return the position's value, see {@link Tablebase#wdl(int)}, or {@link #NOT_FOUND}
+     */
+    public int probe(ChessBoard board, ChessGame.TeamColor teamColor, int[] squares, int[] transformed) {
+        if (board.getCastlingRights() != 0 || board.getEnPassantSquare() >= 0 || Long.bitCount(board.getOccupied()) > maxPieces) {
+            return NOT_FOUND;
+        }
+        if (board.getKingSquare(ChessGame.TeamColor.WHITE) < 0 || board.getKingSquare(ChessGame.TeamColor.BLACK) < 0) {
+            return NOT_FOUND;
+        }
+        long key = materialKey(board);
+        if (key == 0) {
+            return Tablebase.DRAW;
+        }
+        Tablebase table = find(key);
+        return (table == null) ? NOT_FOUND : table.probe(board, teamColor, squares, transformed);
+    }
+
+    /**
+     * Counts the pieces on a board other than the kings, four bits for each
+     * piece of each team
+     *
+     * @param board the board
+     * @return the board's material key
+     */
+    public static long materialKey(ChessBoard board) {
+        long key = 0L;
+        for (int index = 0; index < 12; index++) {
+            ChessPiece piece = ChessPiece.of(index);
+            if (piece.getPieceType() != ChessPiece.PieceType.KING) {
+                key += (long) Long.bitCount(board.getPieces(piece.getTeamColor(), piece.getPieceType())) << (4 * index);
+            }
+        }
+        return key;
+    }
+
+//Private methods
+    /**
+     * @return the table for a material key or the same material with colors
+     * swapped, or null
+     */
+    private Tablebase find(long key) {
+        long swapped = (key >>> 24) | ((key & 0xFFFFFFL) << 24);
+        for (Tablebase table : tables) {
+            if (table.materialKey() == key || table.materialKey() == swapped) {
+                return table;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,433 @@
+package chess.uci;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.InvalidMoveException;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.SearchStatistics;
+import chess.perft.Perft;
+
+/**
+ * Speaks the Universal Chess Interface, so the {@link Engine} can be run by
+ * GUIs and by match tools such as cutechess-cli.
+ * <p>
+ * Commands are read one line at a time on the calling thread and each search
+ * runs on a thread of its own, so {@code stop}, {@code ponderhit} and
+ * {@code isready} are answered while the engine thinks. Supported are
+ * {@code uci}, {@code isready}, {@code ucinewgame}, {@code setoption} for
+ * {@code Hash} and {@code Threads}, {@code position startpos|fen ... [moves ...]},
+ * {@code go} with {@code depth}, {@code nodes}, {@code movetime},
+ * {@code wtime}/{@code btime}/{@code winc}/{@code binc}/{@code movestogo},
+ * {@code infinite} and {@code ponder}, and {@code stop}, {@code ponderhit} and
+ * {@code quit}. Anything else is ignored, as the protocol asks.
+ * <p>
+ * Node counts and nps in {@code info} lines cover every search thread. A
+ * searched move is followed by one more {@code info} line with the totals of
+ * the whole search.
+ * <p>
+ * Run as a program to talk UCI over standard input and output.
+ */
+public class Uci {
+
+    /** Name reported to the GUI */
+    public static final String NAME = "chess";
+    /** Largest transposition table offered, in megabytes */
+    public static final int MAX_HASH_MEGABYTES = 4096;
+    /** Most search threads offered */
+    public static final int MAX_THREADS = 256;
+
+    // time kept back from each move for communication delays
+    private static final long MOVE_OVERHEAD_MILLIS = 30;
+    // moves assumed left in the game when the GUI does not say
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+
+    private final Engine engine;
+    private final PrintStream out;
+    private final Object lock = new Object();
+
+    private ChessGame game = new ChessGame();
+    private Thread searchThread;
+    private Thread stopTimer;
+    /** Set while the best move must wait for {@code stop} or {@code ponderhit} */
+    private boolean holding;
+    /** Time to think once a {@code ponderhit} arrives, or 0 to keep searching */
+    private long ponderMillis;
+
+    // only touched by the search thread
+    private long searchStart;
+
+    /**
+     * @param engine the engine to search with
+     * @param out    where to send replies
+     */
+    public Uci(Engine engine, PrintStream out) {
+        this.engine = engine;
+        this.out = out;
+        engine.setSearchListener(this::info);
+    }
+
+// Public Methods
+    public static void main(String[] args) throws IOException {
+        Uci uci = new Uci(new Engine(), System.out);
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!uci.handle(line)) {
+                return;
+            }
+        }
+        uci.handle("quit");
+    }
+
+    /**
+     * Carries out one command. Returns as soon as a search has started,
+     * without waiting for it to finish.
+     *
+     * @param line the command line
+     * @return False once {@code quit} has been received
+     */
+    public boolean handle(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        switch (tokens[0]) {
+            case "uci" -> {
+                send("id name " + NAME);
+                send("id author " + NAME + " contributors");
+                send("option name Hash type spin default " + Engine.DEFAULT_HASH_MEGABYTES + " min 1 max "
+                        + MAX_HASH_MEGABYTES);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name Ponder type check default false");
+                send("uciok");
+            }
+            case "isready" -> send("readyok");
+            case "ucinewgame" -> {
+                stopSearch();
+                engine.clearHash();
+                game = new ChessGame();
+            }
+            case "setoption" -> {
+                stopSearch();
+                setOption(tokens);
+            }
+            case "position" -> {
+                stopSearch();
+                position(tokens);
+            }
+            case "go" -> go(tokens);
+            case "stop" -> stopSearch();
+            case "ponderhit" -> ponderHit();
+            case "quit" -> {
+                stopSearch();
+                return false;
+            }
+            default -> { }
+        }
+        return true;
+    }
+
+    /**
+     * Waits for the running search, if any, to send its best move
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void waitForSearch() throws InterruptedException {
+        Thread thread;
+        synchronized (lock) {
+            thread = searchThread;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /**
+     * @return the position the next search starts from
+     */
+    public ChessGame getGame() {
+        return game;
+    }
+
+//Private methods
+    private void setOption(String[] tokens) {
+        String name = joinBetween(tokens, "name", "value");
+        String value = joinBetween(tokens, "value", null);
+        try {
+            switch (name.toLowerCase()) {
+                case "hash" -> engine.setHashSize(clamp(Integer.parseInt(value), 1, MAX_HASH_MEGABYTES));
+                case "threads" -> engine.setThreads(clamp(Integer.parseInt(value), 1, MAX_THREADS));
+                case "ponder" -> { }
+                default -> send("info string unknown option " + name);
+            }
+        } catch (NumberFormatException e) {
+            send("info string invalid value for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Sets up {@code position startpos|fen <fen> [moves <move>...]}. On any
+     * error the previous position is kept.
+     */
+    private void position(String[] tokens) {
+        int moves = indexOf(tokens, "moves");
+        ChessGame position;
+        try {
+            if (tokens.length > 1 && tokens[1].equals("fen")) {
+                position = ChessGame.fromFen(joinBetween(tokens, "fen", "moves"));
+            } else {
+                position = new ChessGame();
+            }
+            for (int i = (moves < 0) ? tokens.length : moves + 1; i < tokens.length; i++) {
+                position.makeMove(parseMove(tokens[i]));
+            }
+        } catch (IllegalArgumentException | InvalidMoveException e) {
+            send("info string " + e.getMessage());
+            return;
+        }
+        game = position;
+    }
+
+    private void go(String[] tokens) {
+        boolean white = game.getTeamTurn() == ChessGame.TeamColor.WHITE;
+        int depth = 0;
+        long nodes = 0;
+        long moveTime = 0;
+        long time = 0;
+        long increment = 0;
+        int movesToGo = 0;
+        boolean infinite = false;
+        boolean ponder = false;
+        for (int i = 1; i < tokens.length; i++) {
+            String value = (i + 1 < tokens.length) ? tokens[i + 1] : "0";
+            try {
+                switch (tokens[i]) {
+                    case "depth" -> depth = Integer.parseInt(value);
+                    case "nodes" -> nodes = Long.parseLong(value);
+                    case "movetime" -> moveTime = Long.parseLong(value);
+                    case "wtime" -> time = white ? Long.parseLong(value) : time;
+                    case "btime" -> time = white ? time : Long.parseLong(value);
+                    case "winc" -> increment = white ? Long.parseLong(value) : increment;
+                    case "binc" -> increment = white ? increment : Long.parseLong(value);
+                    case "movestogo" -> movesToGo = Integer.parseInt(value);
+                    case "infinite" -> infinite = true;
+                    case "ponder" -> ponder = true;
+                    default -> { }
+                }
+            } catch (NumberFormatException e) {
+                send("info string invalid value for " + tokens[i] + ": " + value);
+            }
+        }
+        if (moveTime == 0 && time > 0) {
+            moveTime = allotTime(time, increment, movesToGo);
+        }
+        stopSearch();
+        ChessGame position = game;
+        SearchLimits limits = new SearchLimits(depth, (infinite || ponder) ? 0 : moveTime, nodes);
+        synchronized (lock) {
+            holding = infinite || ponder;
+            ponderMillis = ponder ? moveTime : 0;
+            searchThread = new Thread(() -> search(position, limits), "uci-search");
+            searchThread.start();
+        }
+    }
+
+    /**
+     * Runs on the search thread: searches, waits while the GUI still expects
+     * the engine to think, and sends the best move
+     */
+    private void search(ChessGame position, SearchLimits limits) {
+        searchStart = System.nanoTime();
+        SearchResult result = engine.search(position, limits);
+        if (result.getDepth() > 0) {
+            long millis = Math.max((System.nanoTime() - searchStart) / 1_000_000, 1);
+            send("info nodes " + result.getNodes() + " nps " + result.getNodes() * 1000 / millis + " time " + millis);
+        }
+        synchronized (lock) {
+            while (holding) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        StringBuilder line = new StringBuilder("bestmove ");
+        if (result.getBestMove() == null) {
+            line.append("0000");
+        } else {
+            line.append(Perft.notation(result.getBestMove()));
+            if (result.getPrincipalVariation().size() > 1) {
+                line.append(" ponder ").append(Perft.notation(result.getPrincipalVariation().get(1)));
+            }
+        }
+        send(line.toString());
+    }
+
+    /**
+     * Turns a ponder search into a normal one, which stops once the time it
+     * would have been given is up
+     */
+    private void ponderHit() {
+        synchronized (lock) {
+            if (searchThread == null || !holding) {
+                return;
+            }
+            holding = false;
+            lock.notifyAll();
+            if (ponderMillis > 0) {
+                long millis = ponderMillis;
+                stopTimer = new Thread(() -> {
+                    try {
+                        Thread.sleep(millis);
+                        engine.stop();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, "uci-stop-timer");
+                stopTimer.setDaemon(true);
+                stopTimer.start();
+            }
+        }
+    }
+
+    /**
+     * Ends the running search, if any, and waits for it to send its best
+     * move. The stop request is repeated until the search thread finishes,
+     * in case it arrived before the search had begun.
+     */
+    private void stopSearch() {
+        Thread thread;
+        synchronized (lock) {
+            thread = searchThread;
+            holding = false;
+            lock.notifyAll();
+            if (stopTimer != null) {
+                stopTimer.interrupt();
+                stopTimer = null;
+            }
+        }
+        if (thread == null) {
+            return;
+        }
+        try {
+            while (thread.isAlive()) {
+                engine.stop();
+                thread.join(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (searchThread == thread) {
+                searchThread = null;
+            }
+        }
+    }
+
+    /**
+     * Reports a finished iteration, on the search thread
+     */
+    private void info(SearchStatistics statistics) {
+        long millis = Math.max((System.nanoTime() - searchStart) / 1_000_000, 1);
+        StringBuilder line = new StringBuilder("info depth ").append(statistics.getDepth());
+        int score = statistics.getScore();
+        if (Engine.isMateScore(score)) {
+            line.append(" score mate ").append(Engine.mateIn(score));
+        } else {
+            line.append(" score cp ").append(score);
+        }
+        long nodes = statistics.getSearchNodes();
+        line.append(" nodes ").append(nodes)
+                .append(" nps ").append(nodes * 1000 / millis)
+                .append(" time ").append(millis)
+                .append(" pv");
+        for (ChessMove move : statistics.getPrincipalVariation()) {
+            line.append(' ').append(Perft.notation(move));
+        }
+        send(line.toString());
+    }
+
+    /**
+     * Reads a move in coordinate notation, e.g. {@code e2e4} or {@code e7e8q}.
+     * Castling is written as the king's move.
+     */
+    private static ChessMove parseMove(String text) {
+        if (text.length() < 4 || text.length() > 5) {
+            throw new IllegalArgumentException("invalid move " + text);
+        }
+        int from = square(text, 0);
+        int to = square(text, 2);
+        ChessPiece.PieceType promotion = null;
+        if (text.length() == 5) {
+            promotion = switch (text.charAt(4)) {
+                case 'q' -> ChessPiece.PieceType.QUEEN;
+                case 'r' -> ChessPiece.PieceType.ROOK;
+                case 'b' -> ChessPiece.PieceType.BISHOP;
+                case 'n' -> ChessPiece.PieceType.KNIGHT;
+                default -> throw new IllegalArgumentException("invalid move " + text);
+            };
+        }
+        return ChessMove.of(from, to, promotion);
+    }
+
+    private static int square(String text, int start) {
+        int file = text.charAt(start) - 'a';
+        int rank = text.charAt(start + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalArgumentException("invalid move " + text);
+        }
+        return rank * 8 + file;
+    }
+
+    /**
+     * Splits the remaining time so that a game without increment does not
+     * run out, always keeping a little back for overhead
+     */
+    private static long allotTime(long time, long increment, int movesToGo) {
+        long moves = (movesToGo > 0) ? movesToGo : DEFAULT_MOVES_TO_GO;
+        long allotted = time / moves + increment / 2;
+        return Math.max(1, Math.min(allotted, time - MOVE_OVERHEAD_MILLIS));
+    }
+
+    /**
+     * @return the tokens after {@code start} and before {@code end} (or the
+     * end of the line if null or absent), joined by spaces
+     */
+    private static String joinBetween(String[] tokens, String start, String end) {
+        int first = indexOf(tokens, start) + 1;
+        int last = (end == null || indexOf(tokens, end) < 0) ? tokens.length : indexOf(tokens, end);
+        if (first <= 0 || first > last) {
+            return "";
+        }
+        return String.join(" ", Arrays.copyOfRange(tokens, first, last));
+    }
+
+    private static int indexOf(String[] tokens, String token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+}
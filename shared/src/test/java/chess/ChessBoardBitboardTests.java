@@ -0,0 +1,63 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessBoardBitboardTests {
+
+    @Test
+    @DisplayName("Bitboards Match Default Board")
+    public void defaultBoardMasks() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals(Bitboards.RANK_1 | Bitboards.RANK_2, board.getTeamPieces(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Bitboards.RANK_7 | Bitboards.RANK_8, board.getTeamPieces(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(Bitboards.RANK_7,
+                board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(Bitboards.mask(Bitboards.square(1, 5)),
+                board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+    }
+
+    @Test
+    @DisplayName("Replacing And Removing Pieces Updates Bitboards")
+    public void replaceAndRemove() {
+        ChessBoard board = new ChessBoard();
+        ChessPosition position = new ChessPosition(4, 4);
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+
+        long mask = Bitboards.mask(Bitboards.square(position));
+        Assertions.assertEquals(0, board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(mask, board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(mask, board.getOccupied());
+
+        board.addPiece(position, null);
+        Assertions.assertNull(board.getPiece(position));
+        Assertions.assertEquals(0, board.getOccupied());
+        Assertions.assertEquals(new ChessBoard(), board);
+    }
+
+    @Test
+    @DisplayName("Square Attack Queries")
+    public void squareAttacks() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(3, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+
+        Assertions.assertEquals(Bitboards.square(1, 5), board.getKingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(-1, board.getKingSquare(ChessGame.TeamColor.BLACK));
+
+        // rook along the first row up to and including the king
+        Assertions.assertTrue(board.isSquareAttacked(Bitboards.square(1, 5), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(Bitboards.square(1, 6), ChessGame.TeamColor.BLACK));
+        // pawns attack diagonally forward only
+        Assertions.assertTrue(board.isSquareAttacked(Bitboards.square(4, 4), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(Bitboards.square(2, 2), ChessGame.TeamColor.WHITE));
+        // a blocker stops the rook
+        board.addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        Assertions.assertFalse(board.isSquareAttacked(Bitboards.square(1, 5), ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,59 @@
+package chess;
+
+import chess.perft.ReferencePosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Start Position Matches New Game")
+    public void startPosition() {
+        ChessGame game = ChessGame.fromFen(START);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(START, new ChessGame().toFen());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReferencePosition.class)
+    @DisplayName("Round Trip")
+    public void roundTrip(ReferencePosition position) {
+        ChessGame game = ChessGame.fromFen(position.getFen());
+        Assertions.assertEquals(position.getFen(), game.toFen());
+        Assertions.assertEquals(game.getZobristKey(), ChessGame.fromFen(game.toFen()).getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Fields Follow Moves")
+    public void fieldsFollowMoves() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/3p4/8/4P3/4K2R w K - 3 20");
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals("4k3/8/8/8/3pP3/8/8/4K2R b K e3 0 20", game.toFen());
+        game.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(8, 4), null));
+        Assertions.assertEquals("3k4/8/8/8/3pP3/8/8/4K2R w K - 1 21", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Missing Fields Default")
+    public void missingFields() {
+        ChessGame game = ChessGame.fromFen("  8/8/8/8/8/8/8/K1k5 b ");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals("8/8/8/8/8/8/8/K1k5 b - - 0 1", game.toFen());
+        Assertions.assertEquals("8/8/8/8/8/8/8/K1k5 w - - 0 1", ChessGame.fromFen("8/8/8/8/8/8/8/K1k5").toFen());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "8/8/8/8/8/8/8 w", "9/8/8/8/8/8/8/8 w", "8/8/8/8/8/8/8/K1k4x w", "8/8/8/8/8/8/8/K1k5 x",
+            "8/8/8/8/8/8/8/K1k5 w KX", "8/8/8/8/8/8/8/K1k5 w - e4", "8/8/8/8/8/8/8/K1k5 w - - 0 1 extra"})
+    @DisplayName("Malformed Text Rejected")
+    public void malformed(String fen) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen));
+    }
+}
@@ -0,0 +1,39 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Shared Instances Equal Constructed Ones")
+    public void sharedInstances() {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                Assertions.assertSame(ChessPiece.of(color, type), ChessPiece.of(color, type));
+                Assertions.assertEquals(new ChessPiece(color, type), ChessPiece.of(color, type));
+            }
+        }
+        Assertions.assertSame(ChessPosition.of(3, 7), ChessPosition.of(Bitboards.square(3, 7)));
+        Assertions.assertEquals(new ChessPosition(3, 7), ChessPosition.of(3, 7));
+
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.ROOK);
+        Assertions.assertEquals(promotion, ChessMove.of(promotion.getStartPosition(), promotion.getEndPosition(),
+                ChessPiece.PieceType.ROOK));
+        Assertions.assertSame(ChessMove.of(0, 9, null), ChessMove.of(ChessPosition.of(0), ChessPosition.of(9), null));
+    }
+
+    @Test
+    @DisplayName("Unusual Values Are Still Built")
+    public void unusualValues() {
+        Assertions.assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9));
+        ChessMove move = ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(2, 2), ChessPiece.PieceType.KING);
+        Assertions.assertEquals(ChessPiece.PieceType.KING, move.getPromotionPiece());
+
+        ChessMove offBoard = ChessMove.of(new ChessPosition(0, 9), new ChessPosition(1, 2), null);
+        Assertions.assertEquals(new ChessMove(new ChessPosition(0, 9), new ChessPosition(1, 2), null), offBoard);
+        Assertions.assertEquals(new ChessPosition(9, 1),
+                ChessMove.of(new ChessPosition(1, 1), new ChessPosition(9, 1), null).getEndPosition());
+    }
+}
@@ -0,0 +1,59 @@
+package chess;
+
+import chess.perft.ReferencePosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class GameCodecTests {
+
+    @ParameterizedTest
+    @EnumSource(ReferencePosition.class)
+    @DisplayName("Round Trip")
+    public void roundTrip(ReferencePosition position) {
+        ChessGame game = ChessGame.fromFen(position.getFen());
+        byte[] bytes = GameCodec.encode(game);
+        Assertions.assertEquals(GameCodec.SIZE, bytes.length);
+        Assertions.assertEquals(position.getFen(), GameCodec.decode(bytes).toFen());
+    }
+
+    @Test
+    @DisplayName("Decode Into Existing Game")
+    public void decodeIntoGame() throws InvalidMoveException {
+        ChessGame source = ChessGame.fromFen("4k3/8/8/8/3p4/8/4P3/4K2R w K - 3 20");
+        source.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        byte[] bytes = new byte[GameCodec.SIZE + 3];
+        GameCodec.encode(source, bytes, 3);
+
+        ChessGame target = new ChessGame();
+        target.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        GameCodec.decode(bytes, 3, target);
+        Assertions.assertEquals(source.toFen(), target.toFen());
+        Assertions.assertEquals(source.getZobristKey(), target.getZobristKey());
+        Assertions.assertThrows(IllegalStateException.class, target.getBoard()::unmakeMove);
+        Assertions.assertEquals(1, target.legalMoves(ChessGame.TeamColor.BLACK).stream()
+                .filter(move -> move.getEndPosition().equals(new ChessPosition(3, 5))).count());
+    }
+
+    @Test
+    @DisplayName("Invalid Piece Rejected")
+    public void invalidPiece() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        bytes[10] = (byte) 0xF0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Invalid En Passant Square Rejected")
+    public void invalidEnPassant() {
+        byte[] bytes = GameCodec.encode(ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1"));
+        Assertions.assertEquals(43, bytes[33]);
+        Assertions.assertEquals(43, GameCodec.decode(bytes).getBoard().getEnPassantSquare());
+        for (int square : new int[] {0xFF, 63, 28, 15, 48}) {
+            bytes[33] = (byte) square;
+            Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package chess;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.movecalculators.Move;
+import chess.movecalculators.MoveGenerator;
+import chess.movecalculators.MoveList;
+import chess.perft.ReferencePosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class LegalMovesTests {
+
+    @ParameterizedTest
+    @EnumSource(ReferencePosition.class)
+    @DisplayName("Legal Moves Match Make/Unmake Filtering")
+    public void matchesValidMoves(ReferencePosition position) {
+        compareTree(ChessGame.fromFen(position.getFen()), 2);
+    }
+
+    @Test
+    @DisplayName("Pinned Pieces And Double Check")
+    public void pinsAndDoubleCheck() {
+        // white bishop pinned by the rook, white knight pinned by the bishop
+        compareTree(ChessGame.fromFen("4r3/8/8/8/1b6/8/3N4/4K3 w"), 2);
+        compareTree(ChessGame.fromFen("4r3/8/8/8/1b6/8/4B3/4K3 w"), 2);
+        // rook and knight both give check: only the king may move
+        ChessGame game = ChessGame.fromFen("4r2k/8/8/8/8/5n2/8/4K2R w");
+        for (ChessMove move : game.legalMoves(ChessGame.TeamColor.WHITE)) {
+            Assertions.assertEquals(ChessPosition.of(1, 5), move.getStartPosition());
+        }
+        compareTree(game, 2);
+    }
+
+    @Test
+    @DisplayName("Games Read From Several Threads At Once")
+    public void concurrentReads() throws InterruptedException {
+        ChessGame game = ChessGame.fromFen(ReferencePosition.KIWIPETE.getFen());
+        int white = game.legalMoves(ChessGame.TeamColor.WHITE).size();
+        int black = game.legalMoves(ChessGame.TeamColor.BLACK).size();
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            ChessGame.TeamColor team = (t % 2 == 0) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            int expected = (team == ChessGame.TeamColor.WHITE) ? white : black;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    if (game.legalMoves(team).size() != expected || game.isInCheckmate(team) || game.isInStalemate(team)) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(0, mismatches.get());
+    }
+
+    private static void compareTree(ChessGame game, int depth) {
+        ChessGame.TeamColor side = game.getTeamTurn();
+        ChessBoard board = game.getBoard();
+        Set<ChessMove> expected = new HashSet<>();
+        Set<ChessMove> valid = new HashSet<>();
+        MoveList moves = new MoveList();
+        for (long bits = board.getTeamPieces(side); bits != 0; bits &= bits - 1) {
+            int square = Bitboards.first(bits);
+            moves.clear();
+            MoveGenerator.generate(board, square, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                board.makeMove(move);
+                if (!game.isInCheck(side) && !castlesThroughCheck(game, move)) {
+                    expected.add(Move.toChessMove(move));
+                }
+                board.unmakeMove();
+            }
+            valid.addAll(game.validMoves(ChessPosition.of(square)));
+        }
+        Set<ChessMove> legal = new HashSet<>(game.legalMoves(side));
+        Assertions.assertEquals(expected, legal, "moves for " + side + " on " + board);
+        Assertions.assertEquals(expected, valid, "valid moves for " + side + " on " + board);
+        Assertions.assertEquals(legal.isEmpty() && game.isInCheck(side), game.isInCheckmate(side));
+        Assertions.assertEquals(legal.isEmpty() && !game.isInCheck(side), game.isInStalemate(side));
+
+        if (depth == 1) {
+            return;
+        }
+        for (ChessMove move : legal) {
+            board.makeMove(move);
+            game.setTeamTurn(side.opp());
+            compareTree(game, depth - 1);
+            board.unmakeMove();
+            game.setTeamTurn(side);
+        }
+    }
+
+    /**
+     * @return whether a castling move, already made, started in check or
+     * crossed an attacked square; the king's landing square is checked by the caller
+     */
+    private static boolean castlesThroughCheck(ChessGame game, int move) {
+        if (Move.kind(move) != Move.CASTLING) {
+            return false;
+        }
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor side = board.getPiece(Move.to(move)).getTeamColor();
+        int from = Move.from(move);
+        int crossed = (from + Move.to(move)) / 2;
+        board.unmakeMove();
+        boolean attacked = game.isInCheck(side);
+        board.makeMove(Move.of(from, crossed));
+        attacked |= game.isInCheck(side);
+        board.unmakeMove();
+        board.makeMove(move);
+        return attacked;
+    }
+}
@@ -0,0 +1,110 @@
+package chess;
+
+import chess.perft.ReferencePosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Unmake Restores Capture")
+    public void unmakeCapture() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(4, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        ChessBoard original = board.clone();
+
+        board.makeMove(new ChessMove(new ChessPosition(4, 4), new ChessPosition(4, 8), null));
+        Assertions.assertNull(board.getPiece(new ChessPosition(4, 4)));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                board.getPiece(new ChessPosition(4, 8)));
+        Assertions.assertEquals(0, board.getTeamPieces(ChessGame.TeamColor.BLACK));
+
+        board.unmakeMove();
+        Assertions.assertEquals(original, board);
+        Assertions.assertEquals(original.getTeamPieces(ChessGame.TeamColor.BLACK),
+                board.getTeamPieces(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Promotion")
+    public void unmakePromotion() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(7, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        ChessBoard original = board.clone();
+
+        board.makeMove(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                board.getPiece(new ChessPosition(8, 2)));
+
+        board.unmakeMove();
+        Assertions.assertEquals(original, board);
+        Assertions.assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    @Test
+    @DisplayName("Nested Moves Unwind In Order")
+    public void nestedMoves() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard original = board.clone();
+
+        board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        board.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        board.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+
+        Assertions.assertEquals(original, board);
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Castling And En Passant State")
+    public void unmakeState() {
+        ChessBoard board = ChessGame.fromFen(ReferencePosition.KIWIPETE.getFen()).getBoard();
+        long key = board.getZobristKey();
+
+        board.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                board.getPiece(new ChessPosition(1, 6)));
+        Assertions.assertEquals(ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE, board.getCastlingRights());
+        board.makeMove(new ChessMove(new ChessPosition(7, 3), new ChessPosition(5, 3), null));
+        Assertions.assertEquals(Bitboards.square(6, 3), board.getEnPassantSquare());
+        Assertions.assertEquals(0, board.getHalfmoveClock());
+
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING, board.getCastlingRights());
+        Assertions.assertEquals(-1, board.getEnPassantSquare());
+        Assertions.assertEquals(key, board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Repetition And Fifty Move Draws")
+    public void drawRules() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove[] shuffle = {
+            new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+            new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+            new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+            new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null),
+        };
+        for (int round = 0; round < 2; round++) {
+            Assertions.assertFalse(game.isThreefoldRepetition());
+            for (ChessMove move : shuffle) {
+                game.makeMove(move);
+            }
+        }
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertEquals(8, game.getBoard().getHalfmoveClock());
+        Assertions.assertFalse(game.isFiftyMoveDraw());
+
+        game.getBoard().setHalfmoveClock(100);
+        Assertions.assertTrue(game.isFiftyMoveDraw());
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertFalse(game.isFiftyMoveDraw());
+        Assertions.assertFalse(game.isThreefoldRepetition());
+    }
+}
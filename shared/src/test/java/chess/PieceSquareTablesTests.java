@@ -0,0 +1,73 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PieceSquareTablesTests {
+
+    @Test
+    @DisplayName("Start Position Is Balanced At Full Phase")
+    public void startPosition() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals(0, board.getMidgameScore());
+        Assertions.assertEquals(0, board.getEndgameScore());
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase());
+    }
+
+    @Test
+    @DisplayName("Black Tables Mirror White")
+    public void mirrored() {
+        for (int index = 0; index < 6; index++) {
+            for (int square = 0; square < 64; square++) {
+                Assertions.assertEquals(PieceSquareTables.midgame(index, square),
+                        -PieceSquareTables.midgame(index + 6, square ^ 56));
+                Assertions.assertEquals(PieceSquareTables.endgame(index, square),
+                        -PieceSquareTables.endgame(index + 6, square ^ 56));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental Scores Match Recount Through Make And Unmake")
+    public void incremental() {
+        ChessGame game = ChessGame.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w - -");
+        ChessBoard board = game.getBoard();
+        int midgame = board.getMidgameScore();
+        int endgame = board.getEndgameScore();
+        assertMatchesRecount(board);
+
+        ChessGame.TeamColor team = game.getTeamTurn();
+        for (ChessMove move : game.legalMoves(team)) {
+            board.makeMove(move);
+            assertMatchesRecount(board);
+            for (ChessMove reply : game.legalMoves(team.opp())) {
+                board.makeMove(reply);
+                assertMatchesRecount(board);
+                board.unmakeMove();
+            }
+            board.unmakeMove();
+        }
+        Assertions.assertEquals(midgame, board.getMidgameScore());
+        Assertions.assertEquals(endgame, board.getEndgameScore());
+    }
+
+    private static void assertMatchesRecount(ChessBoard board) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                midgame += PieceSquareTables.midgame(piece.getIndex(), square);
+                endgame += PieceSquareTables.endgame(piece.getIndex(), square);
+                phase += PieceSquareTables.phase(piece.getIndex());
+            }
+        }
+        Assertions.assertEquals(midgame, board.getMidgameScore());
+        Assertions.assertEquals(endgame, board.getEndgameScore());
+        Assertions.assertEquals(phase, board.getPhase());
+    }
+}
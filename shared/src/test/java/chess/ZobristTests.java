@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental Key Matches Full Recompute")
+    public void incrementalKey() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long start = board.getZobristKey();
+        Assertions.assertEquals(Zobrist.compute(board), start);
+
+        board.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        board.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        board.makeMove(ChessMove.of(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null));
+        Assertions.assertEquals(Zobrist.compute(board), board.getZobristKey());
+
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(start, board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Transpositions Share A Key")
+    public void transpositions() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(ChessMove.of(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+        first.makeMove(ChessMove.of(ChessPosition.of(8, 2), ChessPosition.of(6, 3), null));
+        first.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        second.makeMove(ChessMove.of(ChessPosition.of(8, 2), ChessPosition.of(6, 3), null));
+        second.makeMove(ChessMove.of(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+        second.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(first.getZobristKey() ^ Zobrist.SIDE_KEY, second.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Pawn Key Tracks Only Pawns")
+    public void pawnKey() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long start = board.getPawnKey();
+        Assertions.assertEquals(Zobrist.computePawns(board), start);
+
+        board.makeMove(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        Assertions.assertEquals(start, board.getPawnKey());
+
+        board.makeMove(ChessMove.of(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        Assertions.assertNotEquals(start, board.getPawnKey());
+        Assertions.assertEquals(Zobrist.computePawns(board), board.getPawnKey());
+
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(start, board.getPawnKey());
+    }
+
+    @Test
+    @DisplayName("Games Differing Only In Castling Rights")
+    public void castlingRightsEquality() {
+        ChessGame castling = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        ChessGame noCastling = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1");
+        Assertions.assertNotEquals(castling, noCastling);
+        Assertions.assertNotEquals(castling.getZobristKey(), noCastling.getZobristKey());
+
+        ChessGame same = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        Assertions.assertEquals(castling, same);
+        Assertions.assertEquals(castling.hashCode(), same.hashCode());
+    }
+}
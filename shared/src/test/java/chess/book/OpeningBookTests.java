@@ -0,0 +1,111 @@
+package chess.book;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.movecalculators.Move;
+import chess.pgn.PgnReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OpeningBookTests {
+
+    private static final String GAMES = """
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O 1-0
+
+            [Result "1-0"]
+
+            1. e4 c5 2. Nf3 d6 1-0
+
+            [Result "1/2-1/2"]
+
+            1. d4 d5 1/2-1/2
+
+            [Result "0-1"]
+
+            1. d4 Nf6 0-1
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Built Book Finds Weighted Moves")
+    public void buildAndRead() throws IOException {
+        Path path = build();
+        Assertions.assertEquals(8 * OpeningBook.ENTRY_SIZE, Files.size(path));
+        try (OpeningBook book = OpeningBook.open(path)) {
+            for (int i = 1; i < book.size(); i++) {
+                Assertions.assertTrue(Long.compareUnsigned(book.key(i - 1), book.key(i)) <= 0);
+            }
+            ChessGame game = new ChessGame();
+            int first = book.find(PolyglotKey.of(game));
+            Assertions.assertTrue(first >= 0);
+            // e4 won twice, d4 drew once and lost once
+            Assertions.assertEquals(4, book.weight(first));
+            Assertions.assertEquals(Move.of(12, 28), book.bestMove(game));
+            Assertions.assertEquals(Move.NONE, book.bestMove(ChessGame.fromFen("8/8/8/8/8/8/8/K1k5 w")));
+
+            Random random = new Random(1);
+            int d4 = 0;
+            for (int i = 0; i < 600; i++) {
+                d4 += (book.randomMove(game, random) == Move.of(11, 27)) ? 1 : 0;
+            }
+            Assertions.assertTrue(d4 > 60 && d4 < 240, "d4 picked " + d4 + " of 600 times");
+        }
+    }
+
+    @Test
+    @DisplayName("Castling Round Trips Through Polyglot Encoding")
+    public void castling() throws IOException {
+        ChessGame game = ChessGame.fromFen("r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+        int castling = Move.castling(4, 6);
+        Assertions.assertEquals(4 << 6 | 7, OpeningBook.toPolyglot(castling));
+        Assertions.assertEquals(castling, OpeningBook.toMove(game.getBoard(), OpeningBook.toPolyglot(castling)));
+        try (OpeningBook book = OpeningBook.open(build())) {
+            Assertions.assertEquals(castling, book.bestMove(game));
+        }
+    }
+
+    @Test
+    @DisplayName("Engine Plays Book Moves Without Searching")
+    public void engineUsesBook() throws IOException {
+        try (OpeningBook book = OpeningBook.open(build())) {
+            Engine engine = new Engine(1);
+            engine.setBook(book);
+            SearchResult result = engine.search(new ChessGame(), SearchLimits.depth(4));
+            Assertions.assertEquals(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                    result.getBestMove());
+            Assertions.assertEquals(0, result.getNodes());
+
+            engine.setBook(null);
+            Assertions.assertTrue(engine.search(new ChessGame(), SearchLimits.depth(2)).getNodes() > 0);
+        }
+    }
+
+    private Path build() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        try (PgnReader reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(GAMES.getBytes(StandardCharsets.UTF_8))))) {
+            reader.forEachRemaining(game -> builder.addGame(game, 20));
+        }
+        Path path = directory.resolve("book.bin");
+        builder.write(path);
+        return path;
+    }
+}
@@ -0,0 +1,59 @@
+package chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PolyglotKeyTests {
+
+    @Test
+    @DisplayName("Keys Match The Polyglot Reference Positions")
+    public void referenceKeys() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0x463B96181691FC9CL, PolyglotKey.of(game));
+        play(game, "e2e4");
+        Assertions.assertEquals(0x823C9B50FD114196L, PolyglotKey.of(game));
+        play(game, "d7d5");
+        Assertions.assertEquals(0x0756B94461C50FB0L, PolyglotKey.of(game));
+        play(game, "e4e5");
+        Assertions.assertEquals(0x662FAFB965DB29D4L, PolyglotKey.of(game));
+        play(game, "f7f5");
+        Assertions.assertEquals(0x22A48B5A8E47FF78L, PolyglotKey.of(game));
+        play(game, "e1e2");
+        Assertions.assertEquals(0x652A607CA3F242C1L, PolyglotKey.of(game));
+        play(game, "e8f7");
+        Assertions.assertEquals(0x00FDD303C946BDD9L, PolyglotKey.of(game));
+
+        game = new ChessGame();
+        for (String move : new String[] {"a2a4", "b7b5", "h2h4", "b5b4", "c2c4"}) {
+            play(game, move);
+        }
+        Assertions.assertEquals(0x3C8123EA7B067637L, PolyglotKey.of(game));
+        play(game, "b4c3");
+        play(game, "a1a3");
+        Assertions.assertEquals(0x5C3F9B829B279560L, PolyglotKey.of(game));
+    }
+
+    @Test
+    @DisplayName("En Passant File Counts Only When A Capture Is Possible")
+    public void enPassant() {
+        // after 1.e4 no black pawn can take on e3, so the square is left out
+        Assertions.assertEquals(0x823C9B50FD114196L,
+                PolyglotKey.of(ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1")));
+        Assertions.assertNotEquals(PolyglotKey.of(ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1")),
+                PolyglotKey.of(ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - - 0 1")));
+    }
+
+//Private methods
+    private static void play(ChessGame game, String move) throws InvalidMoveException {
+        game.makeMove(new ChessMove(position(move, 0), position(move, 2), null));
+    }
+
+    private static ChessPosition position(String move, int index) {
+        return new ChessPosition(move.charAt(index + 1) - '0', move.charAt(index) - 'a' + 1);
+    }
+}
@@ -0,0 +1,152 @@
+package chess.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EngineTests {
+
+    private static final String MIDDLEGAME = "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Finds Back Rank Mate In One")
+    public void mateInOne() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - -");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(ChessMove.of(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.getBestMove());
+        Assertions.assertTrue(Engine.isMateScore(result.getScore()));
+        Assertions.assertEquals(1, Engine.mateIn(result.getScore()));
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Queen")
+    public void capturesQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - -");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(ChessMove.of(new ChessPosition(2, 4), new ChessPosition(5, 4), null),
+                result.getBestMove());
+        Assertions.assertTrue(result.getScore() > 300);
+    }
+
+    @Test
+    @DisplayName("Checkmated Side Has No Move")
+    public void noMoves() {
+        ChessGame game = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - -");
+        SearchResult result = new Engine().search(game, SearchLimits.depth(3));
+
+        Assertions.assertNull(result.getBestMove());
+        Assertions.assertTrue(Engine.isMateScore(result.getScore()));
+    }
+
+    @Test
+    @DisplayName("Respects Limits And Leaves Game Unchanged")
+    public void limits() {
+        ChessGame game = new ChessGame();
+        ChessGame original = new ChessGame();
+
+        SearchResult depthLimited = new Engine().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(3, depthLimited.getDepth());
+        Assertions.assertEquals(depthLimited.getBestMove(), depthLimited.getPrincipalVariation().get(0));
+
+        SearchResult nodeLimited = new Engine().search(game, SearchLimits.nodes(5000));
+        Assertions.assertNotNull(nodeLimited.getBestMove());
+        Assertions.assertTrue(nodeLimited.getNodes() < 5000 + 1024);
+
+        SearchResult timeLimited = new Engine().search(game, SearchLimits.moveTime(50));
+        Assertions.assertNotNull(timeLimited.getBestMove());
+        Assertions.assertEquals(original, game);
+    }
+
+    @Test
+    @DisplayName("Helper Threads Share Table And Report Main Result")
+    public void parallelSearch() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - -");
+        ChessGame original = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - -");
+        Engine engine = new Engine();
+        engine.setThreads(4);
+        SearchResult result = engine.search(game, SearchLimits.depth(5));
+
+        Assertions.assertEquals(ChessMove.of(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.getBestMove());
+        Assertions.assertEquals(1, Engine.mateIn(result.getScore()));
+        Assertions.assertEquals(original, game);
+
+        SearchResult timed = engine.search(new ChessGame(), SearchLimits.moveTime(100));
+        Assertions.assertNotNull(timed.getBestMove());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> engine.setThreads(0));
+    }
+
+    @Test
+    @DisplayName("Listener Receives Consistent Statistics Per Iteration")
+    public void statistics() {
+        List<SearchStatistics> iterations = new ArrayList<>();
+        Engine engine = new Engine();
+        engine.setSearchListener(iterations::add);
+        SearchResult result = engine.search(ChessGame.fromFen(MIDDLEGAME), SearchLimits.depth(5));
+
+        Assertions.assertEquals(5, iterations.size());
+        long nodes = 0;
+        for (SearchStatistics statistics : iterations) {
+            Assertions.assertTrue(statistics.getQuiescenceNodes() <= statistics.getNodes());
+            Assertions.assertTrue(statistics.getTableHits() <= statistics.getTableProbes());
+            Assertions.assertTrue(statistics.getFirstMoveCutoffs() <= statistics.getBetaCutoffs());
+            Assertions.assertTrue(statistics.getNullMoveCutoffs() <= statistics.getNullMoveTries());
+            nodes += statistics.getNodes();
+        }
+        Assertions.assertEquals(result.getNodes(), nodes);
+        SearchStatistics last = iterations.get(4);
+        Assertions.assertEquals(5, last.getDepth());
+        Assertions.assertEquals(result.getBestMove(), last.getBestMove());
+        Assertions.assertTrue(last.getFirstMoveCutoffRate() > 0.5, last.toString());
+        Assertions.assertEquals((double) last.getNodes() / iterations.get(3).getNodes(),
+                last.getEffectiveBranchingFactor(), 1e-9);
+        Assertions.assertEquals(0, iterations.get(0).getEffectiveBranchingFactor());
+    }
+
+    @Test
+    @DisplayName("Iterations Are Recorded As Flight Recorder Events")
+    public void flightRecorder() throws IOException {
+        Path file = directory.resolve("search.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("chess.SearchIteration");
+            recording.start();
+            new Engine().search(ChessGame.fromFen(MIDDLEGAME), SearchLimits.depth(4));
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Assertions.assertEquals(4, events.size());
+        Assertions.assertEquals(4, events.get(3).getInt("depth"));
+        Assertions.assertTrue(events.get(3).getLong("nodes") > 0);
+    }
+
+    @Test
+    @DisplayName("Long Tablebase Mates Found Deep Are Still Mates")
+    public void deepTablebaseMate() {
+        // a 65 ply win and a 64 ply loss probed 100 plies from the root
+        int win = Searcher.tablebaseScore(66, 100);
+        Assertions.assertTrue(Engine.isMateScore(win));
+        Assertions.assertEquals(83, Engine.mateIn(win));
+        int loss = Searcher.tablebaseScore(65, 100);
+        Assertions.assertTrue(Engine.isMateScore(loss));
+        Assertions.assertEquals(-82, Engine.mateIn(loss));
+    }
+}
@@ -0,0 +1,50 @@
+package chess.engine;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Mirrored Positions Score The Same For Each Side")
+    public void symmetric() {
+        Evaluation evaluation = new Evaluation();
+        ChessGame start = new ChessGame();
+        Assertions.assertEquals(0, evaluation.evaluate(start.getBoard(), ChessGame.TeamColor.WHITE));
+
+        ChessGame white = ChessGame.fromFen("4k3/pp6/8/2P5/8/8/P1P2PPP/4K3 w - -");
+        ChessGame black = ChessGame.fromFen("4k3/p1p2ppp/8/8/2p5/8/PP6/4K3 b - -");
+        Assertions.assertEquals(evaluation.evaluate(white.getBoard(), ChessGame.TeamColor.WHITE),
+                evaluation.evaluate(black.getBoard(), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Pawn Weaknesses Cost And Passed Pawns Gain")
+    public void pawnStructure() {
+        Evaluation evaluation = new Evaluation();
+        int healthy = evaluation.evaluate(ChessGame.fromFen("4k3/8/8/8/8/8/PPP5/4K3 w - -").getBoard(),
+                ChessGame.TeamColor.WHITE);
+        int broken = evaluation.evaluate(ChessGame.fromFen("4k3/8/8/8/8/P7/P1P5/4K3 w - -").getBoard(),
+                ChessGame.TeamColor.WHITE);
+        Assertions.assertTrue(healthy > broken);
+
+        int blocked = evaluation.evaluate(ChessGame.fromFen("4k3/8/p7/8/P7/8/8/4K3 w - -").getBoard(),
+                ChessGame.TeamColor.WHITE);
+        int passed = evaluation.evaluate(ChessGame.fromFen("4k3/8/7p/8/P7/8/8/4K3 w - -").getBoard(),
+                ChessGame.TeamColor.WHITE);
+        Assertions.assertTrue(passed > blocked);
+    }
+
+    @Test
+    @DisplayName("Cached Pawn Scores Match A Fresh Evaluation")
+    public void cached() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - -");
+        Evaluation warm = new Evaluation();
+        int first = warm.evaluate(game.getBoard(), ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(first, warm.evaluate(game.getBoard(), ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(first, new Evaluation().evaluate(game.getBoard(), ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(-first, warm.evaluate(game.getBoard(), ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,60 @@
+package chess.engine;
+
+import chess.movecalculators.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Stored Entry Unpacks To Same Values")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEF0L;
+        int move = Move.of(12, 28);
+        table.store(key, move, -31950, 7, TranspositionTable.LOWER);
+
+        long entry = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-31950, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+    }
+
+    @Test
+    @DisplayName("Other Key In Same Slot Misses")
+    public void keyVerified() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x0F0F0F0F00000042L;
+        table.store(key, Move.of(1, 18), 25, 3, TranspositionTable.EXACT);
+
+        Assertions.assertEquals(0, table.probe(key ^ (1L << 62)));
+        Assertions.assertEquals(0, new TranspositionTable(1).probe(key));
+    }
+
+    @Test
+    @DisplayName("Deeper Entry Kept Within A Search")
+    public void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 77L;
+        long other = 77L + ((long) table.capacity() << 4);
+        table.store(key, Move.of(1, 18), 10, 8, TranspositionTable.EXACT);
+        table.store(other, Move.of(6, 21), 20, 2, TranspositionTable.EXACT);
+        Assertions.assertNotEquals(0, table.probe(key));
+        Assertions.assertEquals(0, table.probe(other));
+
+        table.newSearch();
+        table.store(other, Move.of(6, 21), 20, 2, TranspositionTable.EXACT);
+        Assertions.assertEquals(0, table.probe(key));
+        Assertions.assertEquals(20, TranspositionTable.score(table.probe(other)));
+    }
+
+    @Test
+    @DisplayName("Size Is Power Of Two Within Budget")
+    public void size() {
+        TranspositionTable table = new TranspositionTable(3);
+        Assertions.assertEquals(1 << 17, table.capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+}
@@ -0,0 +1,35 @@
+package chess.movecalculators;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MagicBitboardsTests {
+
+    @Test
+    @DisplayName("Table Lookups Match Ray Walks")
+    public void lookupsMatchRayWalks() {
+        Random random = new Random(240);
+        for (int square = 0; square < 64; square++) {
+            for (int i = 0; i < 200; i++) {
+                long occupied = random.nextLong() & random.nextLong();
+                Assertions.assertEquals(MagicBitboards.rookAttacksSlow(square, occupied),
+                        MagicBitboards.rookAttacks(square, occupied), "rook attacks on square " + square);
+                Assertions.assertEquals(MagicBitboards.bishopAttacksSlow(square, occupied),
+                        MagicBitboards.bishopAttacks(square, occupied), "bishop attacks on square " + square);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Empty Board Attacks")
+    public void emptyBoardAttacks() {
+        // rook on a1 sees the whole first row and first column
+        Assertions.assertEquals(0x01010101010101FEL, MagicBitboards.rookAttacks(0, 0L));
+        // bishop on a1 sees the long diagonal
+        Assertions.assertEquals(0x8040201008040200L, MagicBitboards.bishopAttacks(0, 0L));
+        Assertions.assertEquals(27, Long.bitCount(MagicBitboards.queenAttacks(27, 0L)));
+    }
+}
@@ -0,0 +1,62 @@
+package chess.movecalculators;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import chess.ChessGame;
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.perft.ReferencePosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class MoveGeneratorTests {
+
+    @ParameterizedTest
+    @EnumSource(ReferencePosition.class)
+    @DisplayName("Generator Matches Piece Calculators")
+    public void matchesCalculators(ReferencePosition position) {
+        ChessBoard board = ChessGame.fromFen(position.getFen()).getBoard();
+        MoveList moves = new MoveList();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece == null) { continue; }
+
+            moves.clear();
+            MoveGenerator.generate(board, square, moves);
+            // the calculators know nothing of castling rights or en passant
+            Set<ChessMove> generated = new HashSet<>();
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (Move.kind(move) == Move.NORMAL || Move.kind(move) == Move.PROMOTION) {
+                    generated.add(Move.toChessMove(move));
+                }
+            }
+            Assertions.assertEquals(new HashSet<>(piece.pieceMoves(board, ChessPosition.of(square))),
+                    generated, "moves from square " + square);
+        }
+    }
+
+    @Test
+    @DisplayName("Encoding Round Trip")
+    public void encodingRoundTrip() {
+        ChessMove promotion = ChessMove.of(Bitboards.square(2, 7), Bitboards.square(1, 8), ChessPiece.PieceType.KNIGHT);
+        int move = Move.of(promotion);
+        Assertions.assertEquals(Move.PROMOTION, Move.kind(move));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, Move.promotion(move));
+        Assertions.assertEquals(promotion, Move.toChessMove(move));
+        Assertions.assertTrue(move < (1 << 16));
+
+        int quiet = Move.of(Bitboards.square(1, 7), Bitboards.square(3, 6));
+        Assertions.assertEquals(Move.NORMAL, Move.kind(quiet));
+        Assertions.assertNull(Move.promotion(quiet));
+        Assertions.assertEquals(Bitboards.square(1, 7), Move.from(quiet));
+        Assertions.assertEquals(Bitboards.square(3, 6), Move.to(quiet));
+    }
+}
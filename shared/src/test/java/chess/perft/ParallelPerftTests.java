@@ -0,0 +1,60 @@
+package chess.perft;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class ParallelPerftTests {
+
+    @ParameterizedTest
+    @EnumSource(ReferencePosition.class)
+    @DisplayName("Reference Position Node Counts")
+    public void referenceCounts(ReferencePosition position) {
+        ParallelPerft perft = new ParallelPerft(ChessGame.fromFen(position.getFen()));
+        for (int depth = 1; depth <= Math.min(position.getMaxDepth(), 5); depth++) {
+            Assertions.assertEquals(position.getNodes(depth), perft.count(depth), position + " at depth " + depth);
+        }
+    }
+
+    @Test
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    @DisplayName("Start Position Perft 6")
+    public void startDepthSix() {
+        ChessGame game = new ChessGame();
+        long nodes = new ParallelPerft(game).count(6);
+        Assertions.assertEquals(ReferencePosition.START.getNodes(6), nodes);
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    @Test
+    @DisplayName("Dedicated Pool and Small Cache Match Perft")
+    public void smallPool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ChessGame game = ChessGame.fromFen(ReferencePosition.KIWIPETE.getFen());
+            ParallelPerft perft = new ParallelPerft(game, new PerftHashTable(1), pool);
+            Assertions.assertEquals(new Perft(game).count(3), perft.count(3));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Cache Keys Counts By Depth")
+    public void hashTable() {
+        PerftHashTable table = new PerftHashTable(1);
+        long key = 0x123456789ABCDEFL;
+        Assertions.assertEquals(-1, table.probe(key, 3));
+        table.store(key, 3, 97862);
+        Assertions.assertEquals(97862, table.probe(key, 3));
+        Assertions.assertEquals(-1, table.probe(key, 4));
+        Assertions.assertEquals(-1, table.probe(key ^ 1, 3));
+    }
+}
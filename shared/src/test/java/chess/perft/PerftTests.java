@@ -0,0 +1,40 @@
+package chess.perft;
+
+import java.util.Map;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class PerftTests {
+
+    // deeper counts are left to Perft --suite to keep the unit tests quick
+    private static final long MAX_NODES = 1_000_000;
+
+    @ParameterizedTest
+    @EnumSource(ReferencePosition.class)
+    @DisplayName("Reference Position Node Counts")
+    public void referenceCounts(ReferencePosition position) {
+        Perft perft = new Perft(ChessGame.fromFen(position.getFen()));
+        for (int depth = 1; depth <= position.getMaxDepth() && position.getNodes(depth) <= MAX_NODES; depth++) {
+            Assertions.assertEquals(position.getNodes(depth), perft.count(depth),
+                    position + " at depth " + depth);
+        }
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Count And Leaves Game Unchanged")
+    public void divide() {
+        ChessGame game = new ChessGame();
+        ChessGame original = new ChessGame();
+        Map<ChessMove, Long> counts = new Perft(game).divide(3);
+
+        Assertions.assertEquals(20, counts.size());
+        Assertions.assertEquals(8902, counts.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(original, game);
+    }
+}
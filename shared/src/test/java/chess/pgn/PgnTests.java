@@ -0,0 +1,128 @@
+package chess.pgn;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PgnTests {
+
+    private static final String GAMES = """
+            [Event "Casual \\"blitz\\""]
+            [White "Anderssen"]
+            [Black "Kieseritzky"]
+            [Result "1-0"]
+
+            1. e4 e5 2. f4 {King's Gambit} exf4 3. Bc4 Qh4+ $1 4. Kf1 b5!? (4... Nf6 5. Nf3)
+            5. Bxb5 Nf6 6. Nf3 Qh6 7. d3 Nh5 8. Nh4 Qg5 9. Nf5 c6 ; main line
+            10. g4 Nf6 11. Rg1 cxb5 12. h4 Qg6 13. h5 Qg5 14. Qf3 Ng8 15. Bxf4 Qf6 16. Nc3
+            Bc5 17. Nd5 Qxb2 18. Bd6 Bxg1 19. e5 Qxa1+ 20. Ke2 Na6 21. Nxg7+ Kd8 22. Qf6+
+            Nxf6 23. Be7# 1-0
+
+            [FEN "4k3/1P6/8/8/8/8/8/4K2R w K - 0 40"]
+
+            40. b8=N Ke7 41. O-O *
+            """;
+
+    @Test
+    @DisplayName("Reads Games With Comments And Variations")
+    public void readsGames() throws IOException {
+        try (PgnReader reader = reader(GAMES)) {
+            PgnGame immortal = reader.next();
+            Assertions.assertEquals("Casual \"blitz\"", immortal.getTag("Event"));
+            Assertions.assertEquals("1-0", immortal.getResult());
+            Assertions.assertEquals(45, immortal.getMoves().size());
+            ChessGame game = replay(immortal);
+            Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+
+            PgnGame promotion = reader.next();
+            Assertions.assertEquals(PgnGame.UNKNOWN_RESULT, promotion.getResult());
+            Assertions.assertEquals(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT),
+                    promotion.getMoves().get(0));
+            Assertions.assertEquals(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null),
+                    promotion.getMoves().get(2));
+            Assertions.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    @DisplayName("Written Games Read Back")
+    public void roundTrip() throws IOException {
+        List<PgnGame> games = new ArrayList<>();
+        try (PgnReader reader = reader(GAMES)) {
+            reader.forEachRemaining(games::add);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PgnWriter writer = new PgnWriter(Channels.newChannel(out))) {
+            for (PgnGame game : games) {
+                writer.write(game);
+            }
+        }
+        String text = out.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(text.contains("[Event \"Casual \\\"blitz\\\"\"]"));
+        Assertions.assertTrue(text.contains("22. Qf6+ Nxf6 23. Be7# 1-0"));
+        Assertions.assertTrue(text.contains("40. b8=N Ke7 41. O-O *"));
+        text.lines().forEach(line -> Assertions.assertTrue(line.length() <= PgnWriter.LINE_LENGTH, line));
+
+        try (PgnReader reader = reader(text)) {
+            for (PgnGame game : games) {
+                PgnGame read = reader.next();
+                Assertions.assertEquals(game.getTags(), read.getTags());
+                Assertions.assertEquals(game.getMoves(), read.getMoves());
+                Assertions.assertEquals(game.getResult(), read.getResult());
+            }
+            Assertions.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    @DisplayName("SAN Disambiguation")
+    public void disambiguation() {
+        San san = new San();
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/1N3N2/8/1N6/4K3 w - - 0 1");
+        ChessMove move = san.parse(game, "Nb4d3");
+        Assertions.assertEquals(new ChessMove(new ChessPosition(4, 2), new ChessPosition(3, 4), null), move);
+        Assertions.assertEquals("Nb4d3", san.format(game, move));
+        Assertions.assertEquals("N2d3", san.format(game, san.parse(game, "N2d3")));
+        Assertions.assertEquals("Nfd3", san.format(game, san.parse(game, "Nfd3+")));
+        Assertions.assertEquals("Nh5", san.format(game, san.parse(game, "Nh5")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san.parse(game, "Nd3"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san.parse(game, "Nb4b6"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> san.parse(game, "O-O"));
+    }
+
+    @Test
+    @DisplayName("Illegal Move Names Its Line")
+    public void illegalMove() throws IOException {
+        try (PgnReader reader = reader("[White \"x\"]\n\n1. e4 e5\n2. Ke3 *\n")) {
+            IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class, reader::next);
+            Assertions.assertTrue(e.getMessage().startsWith("line 4"), e.getMessage());
+        }
+    }
+
+    private static PgnReader reader(String text) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static ChessGame replay(PgnGame pgn) {
+        ChessGame game = pgn.startingPosition();
+        for (ChessMove move : pgn.getMoves()) {
+            game.getBoard().makeMove(move);
+            game.setTeamTurn(game.getTeamTurn().opp());
+        }
+        return game;
+    }
+}
@@ -0,0 +1,139 @@
+package chess.tablebase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TablebaseTests {
+
+    private static Tablebases tablebases;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    public static void generate() {
+        tablebases = new Tablebases();
+        tablebases.generate("KQvK");
+        tablebases.generate("KRvK");
+        tablebases.generate("KPvK");
+    }
+
+    @Test
+    @DisplayName("Successor Tables")
+    public void successors() {
+        Assertions.assertEquals(List.of("KQvK", "KRvK", "KBvK", "KNvK"), TablebaseGenerator.successors("KPvK"));
+        Assertions.assertEquals(List.of("KPvK", "KRvK", "KQvKR", "KRvKR", "KRvKB", "KRvKN"),
+                TablebaseGenerator.successors("KRvKP"));
+    }
+
+    @Test
+    @DisplayName("Longest Wins Match Known Endgame Theory")
+    public void longestWins() {
+        // ten moves to mate with king and queen, sixteen with king and rook
+        Assertions.assertEquals(19, longestWin(tablebases.generate("KQvK")));
+        Assertions.assertEquals(31, longestWin(tablebases.generate("KRvK")));
+    }
+
+    @Test
+    @DisplayName("Mates, Mated Positions and Draws")
+    public void probe() {
+        Assertions.assertEquals(2, probe("k7/8/1K6/8/8/8/7Q/8 w - - 0 1"));
+        Assertions.assertEquals(1, probe("k7/Q7/1K6/8/8/8/8/8 b - - 0 1"));
+        Assertions.assertEquals(Tablebase.DRAW, probe("8/8/8/8/8/8/1Q6/k5K1 b - - 0 1"));
+        Assertions.assertEquals(Tablebase.DRAW, probe("4k3/8/4P3/4K3/8/8/8/8 w - - 0 1"));
+        Assertions.assertEquals(-1, Tablebase.wdl(probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1")));
+        Assertions.assertEquals(-1, Tablebase.wdl(probe("8/8/8/3k4/8/8/8/R3K3 b - - 0 1")));
+        Assertions.assertEquals(Tablebase.DRAW, probe("8/8/8/8/8/8/8/K1k5 w - - 0 1"));
+        Assertions.assertEquals(Tablebases.NOT_FOUND, probe("4k3/8/8/8/8/8/8/4K2R w K - 0 1"));
+        Assertions.assertEquals(Tablebases.NOT_FOUND, probe("4k3/8/8/8/8/8/8/1B2K1N1 w - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Boards Missing a King")
+    public void missingKing() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(2, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(Tablebases.NOT_FOUND, tablebases.probe(board, ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(Tablebases.NOT_FOUND, tablebases.generate("KQvK").probe(board, ChessGame.TeamColor.BLACK));
+
+        board = new ChessBoard();
+        board.addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        Assertions.assertEquals(Tablebases.NOT_FOUND, tablebases.probe(board, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Colors Swapped and Board Mirrored")
+    public void symmetry() {
+        Assertions.assertEquals(probe("k7/8/1K6/8/8/8/7Q/8 w - - 0 1"), probe("8/7q/8/8/8/1k6/8/K7 b - - 0 1"));
+        Assertions.assertEquals(probe("k7/8/1K6/8/8/8/7Q/8 w - - 0 1"), probe("7k/8/6K1/8/8/8/Q7/8 w - - 0 1"));
+        Assertions.assertEquals(probe("8/8/2k5/8/4K3/8/2P5/8 w - - 0 1"), probe("8/8/5k2/8/3K4/8/5P2/8 w - - 0 1"));
+        Assertions.assertEquals(probe("8/8/2k5/8/4K3/8/2P5/8 w - - 0 1"), probe("8/2p5/8/4k3/8/2K5/8/8 b - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Written Tables Open and Probe the Same")
+    public void writeAndOpen() throws IOException {
+        tablebases.write(directory);
+        Assertions.assertEquals(Tablebase.size("KQvK"), Files.size(directory.resolve("KQvK.tb")));
+        Tablebases opened = Tablebases.open(directory);
+        Assertions.assertEquals(3, opened.getMaxPieces());
+        for (String fen : new String[] {"k7/8/1K6/8/8/8/7Q/8 w - - 0 1", "8/8/8/3k4/8/8/8/R3K3 w - - 0 1",
+                "8/8/2k5/8/4K3/8/2P5/8 b - - 0 1"}) {
+            ChessGame game = ChessGame.fromFen(fen);
+            Assertions.assertEquals(tablebases.probe(game), opened.probe(game), fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Engine Plays Tablebase Moves")
+    public void engine() throws InvalidMoveException {
+        Engine engine = new Engine(1);
+        engine.setTablebases(tablebases);
+        SearchResult result = engine.search(ChessGame.fromFen("k7/8/1K6/8/8/8/7Q/8 w - - 0 1"), new SearchLimits(4, 0, 0));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 8), new ChessPosition(8, 8), null),
+                result.getBestMove());
+        Assertions.assertEquals(0, result.getDepth());
+        Assertions.assertEquals(1, Engine.mateIn(result.getScore()));
+
+        ChessGame game = ChessGame.fromFen("8/8/8/3k4/8/8/8/R3K3 w - - 0 1");
+        int plies = Tablebase.pliesToMate(tablebases.probe(game));
+        for (int ply = 0; ply < plies; ply++) {
+            game.makeMove(engine.search(game, new SearchLimits(2, 0, 0)).getBestMove());
+        }
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+//Private methods
+    private static int probe(String fen) {
+        return tablebases.probe(ChessGame.fromFen(fen));
+    }
+
+    private static int longestWin(Tablebase table) {
+        int longest = 0;
+        for (int index = 0; index < table.size(); index++) {
+            int value = table.values().get(index) & 0xFF;
+            if (value != Tablebase.INVALID && Tablebase.wdl(value) > 0) {
+                longest = Math.max(longest, Tablebase.pliesToMate(value));
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,151 @@
+package chess.uci;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import chess.engine.Engine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UciTests {
+
+    private ByteArrayOutputStream output;
+    private Engine engine;
+    private Uci uci;
+
+    @BeforeEach
+    public void setUp() {
+        output = new ByteArrayOutputStream();
+        engine = new Engine(1);
+        uci = new Uci(engine, new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Handshake and Options")
+    public void handshake() {
+        uci.handle("uci");
+        uci.handle("isready");
+        uci.handle("setoption name Threads value 2");
+        uci.handle("setoption name Hash value 8");
+        uci.handle("setoption name Colour value blue");
+
+        String text = output();
+        Assertions.assertTrue(text.contains("option name Hash type spin"), text);
+        Assertions.assertTrue(text.contains("option name Threads type spin"), text);
+        Assertions.assertTrue(text.contains("uciok\nreadyok\n"), text);
+        Assertions.assertTrue(text.contains("info string unknown option Colour"), text);
+        Assertions.assertEquals(2, engine.getThreads());
+        Assertions.assertFalse(uci.handle("quit"));
+    }
+
+    @Test
+    @DisplayName("Position With Moves")
+    public void position() {
+        uci.handle("position startpos moves e2e4 e7e5 g1f3 b8c6 f1c4 g8f6 e1g1");
+        Assertions.assertEquals("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQ1RK1 b kq - 5 4",
+                uci.getGame().toFen());
+
+        uci.handle("position fen 8/4P3/8/8/8/8/k7/7K w - - 0 1 moves e7e8n");
+        Assertions.assertEquals("4N3/8/8/8/8/8/k7/7K b - - 0 1", uci.getGame().toFen());
+
+        uci.handle("position startpos moves e2e5");
+        Assertions.assertEquals("4N3/8/8/8/8/8/k7/7K b - - 0 1", uci.getGame().toFen());
+        Assertions.assertTrue(output().startsWith("info string"), output());
+    }
+
+    @Test
+    @DisplayName("Go Depth Reports Iterations and Best Move")
+    public void goDepth() throws InterruptedException {
+        uci.handle("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        uci.handle("go depth 4");
+        uci.waitForSearch();
+
+        String text = output();
+        Assertions.assertTrue(text.contains("info depth 1 score mate 1 nodes "), text);
+        Assertions.assertTrue(text.contains(" pv a1a8"), text);
+        Assertions.assertTrue(text.endsWith("bestmove a1a8\n"), text);
+    }
+
+    @Test
+    @DisplayName("Infinite Search Waits For Stop")
+    public void infinite() throws InterruptedException {
+        uci.handle("position startpos");
+        uci.handle("go infinite");
+        Thread.sleep(100);
+        uci.handle("isready");
+        Assertions.assertTrue(output().contains("readyok"));
+        Assertions.assertFalse(output().contains("bestmove"));
+        uci.handle("stop");
+
+        String text = output();
+        Assertions.assertEquals(text.indexOf("bestmove"), text.lastIndexOf("bestmove"), text);
+        Assertions.assertTrue(text.contains("bestmove "), text);
+    }
+
+    @Test
+    @DisplayName("Ponder Hit Finishes On The Clock")
+    public void ponder() throws InterruptedException {
+        uci.handle("position startpos moves e2e4");
+        uci.handle("go ponder wtime 3000 btime 3000 movestogo 30");
+        Thread.sleep(50);
+        Assertions.assertFalse(output().contains("bestmove"));
+        long start = System.nanoTime();
+        uci.handle("ponderhit");
+        uci.waitForSearch();
+
+        Assertions.assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        Assertions.assertTrue(output().contains("bestmove "), output());
+    }
+
+    @Test
+    @DisplayName("Move Time Limits The Search")
+    public void moveTime() throws InterruptedException {
+        uci.handle("position startpos");
+        long start = System.nanoTime();
+        uci.handle("go wtime 1000 btime 1000");
+        uci.waitForSearch();
+
+        Assertions.assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        Assertions.assertTrue(output().contains("bestmove "), output());
+    }
+
+    @Test
+    @DisplayName("Nodes Count Every Search Thread")
+    public void threadNodes() throws InterruptedException {
+        // the main thread stops on a node count the limit check lands on exactly
+        Assertions.assertEquals(49 * 1024, totalNodes("go nodes " + 49 * 1024));
+        uci.handle("setoption name Threads value 4");
+        long nodes = totalNodes("go nodes " + 49 * 1024);
+        Assertions.assertTrue(nodes > 49 * 1024, nodes + " nodes on four threads");
+
+        // iterations report the running total of every thread, never more than the closing count
+        String text = output();
+        int start = text.lastIndexOf(" nodes ", text.lastIndexOf("info nodes ")) + " nodes ".length();
+        long iterationNodes = Long.parseLong(text.substring(start, text.indexOf(' ', start)));
+        Assertions.assertTrue(iterationNodes > 0 && iterationNodes <= nodes, text);
+    }
+
+//Private methods
+    /**
+     * Searches the start position from an empty hash table
+     *
+     * @return the node count of the search's closing info line
+     */
+    private long totalNodes(String go) throws InterruptedException {
+        uci.handle("ucinewgame");
+        uci.handle("position startpos");
+        output.reset();
+        uci.handle(go);
+        uci.waitForSearch();
+        String text = output();
+        int start = text.lastIndexOf("info nodes ") + "info nodes ".length();
+        return Long.parseLong(text.substring(start, text.indexOf(' ', start)));
+    }
+
+    private String output() {
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}